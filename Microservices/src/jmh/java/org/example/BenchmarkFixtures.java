@@ -0,0 +1,92 @@
+package org.example;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.model.User;
+import org.example.repository.RevokedTokenRepository;
+import org.example.service.TokenRevocationService;
+import org.example.service.UserStatusRegistry;
+import org.example.util.JwtUtils;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 基准测试共用的对象：不启动Spring容器，@Value字段按application.yml中的默认值设置，不需要数据库
+public final class BenchmarkFixtures {
+
+    public static final String JWT_SECRET = "your-secret-key-for-jwt-token-generation-change-in-production";
+
+    public static final long JWT_EXPIRATION_MS = 900000L;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    public static User user() {
+        return User.builder()
+                .id(42L)
+                .username("user42")
+                .email("user42@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8hD2Lr3lkN8lJ8sS9G1eZ7K")
+                .fullName("张三")
+                .phone("13800138000")
+                .role("USER")
+                .status("ACTIVE")
+                .createdAt(LocalDateTime.of(2023, 1, 1, 10, 0))
+                .lastLogin(LocalDateTime.of(2023, 1, 1, 10, 0))
+                .version(3L)
+                .build();
+    }
+
+    public static Authentication authentication(User user) {
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    // algorithm为HS256或RS256（RS256使用启动时生成的临时密钥）
+    public static JwtUtils jwtUtils(String algorithm, boolean tokenCacheEnabled) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "signingAlgorithm", algorithm);
+        ReflectionTestUtils.setField(jwtUtils, "signingKeysDir", "");
+        ReflectionTestUtils.setField(jwtUtils, "signingActiveKid", "");
+        ReflectionTestUtils.setField(jwtUtils, "acceptHs256", false);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", JWT_EXPIRATION_MS);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCacheEnabled", tokenCacheEnabled);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCacheMaximumSize", 100000L);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCacheNegativeMaximumSize", 10000L);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCacheNegativeTtlMs", 10000L);
+        ReflectionTestUtils.setField(jwtUtils, "meterRegistry", meterRegistry());
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    public static UserStatusRegistry userStatusRegistry(boolean statelessEnabled) {
+        UserStatusRegistry registry = new UserStatusRegistry();
+        ReflectionTestUtils.setField(registry, "enabled", statelessEnabled);
+        ReflectionTestUtils.setField(registry, "maxStalenessMs", 300000L);
+        ReflectionTestUtils.setField(registry, "jwtExpirationMs", JWT_EXPIRATION_MS);
+        return registry;
+    }
+
+    // 吊销列表为空，仓库查询返回空结果
+    public static TokenRevocationService tokenRevocationService() {
+        RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(
+                RevokedTokenRepository.class.getClassLoader(),
+                new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> method.getReturnType() == List.class ? List.of() : 0);
+        TokenRevocationService service = new TokenRevocationService();
+        ReflectionTestUtils.setField(service, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry());
+        ReflectionTestUtils.setField(service, "expectedEntries", 1000000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.001);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.config;
+
+import jakarta.servlet.FilterChain;
+import org.example.BenchmarkFixtures;
+import org.example.model.User;
+import org.example.util.JwtUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.concurrent.TimeUnit;
+
+// 带有效令牌的请求经过JWT认证过滤器一次（用户详情服务直接返回，相当于用户缓存命中）
+// tokenCache=false 时每次请求都验证签名并解析声明，true 时命中已验证令牌缓存
+// stateless=true 时由令牌声明构建用户主体
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean tokenCache;
+
+    @Param({"false", "true"})
+    private boolean stateless;
+
+    private JwtAuthenticationFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private final FilterChain filterChain = (request, response) -> {
+    };
+
+    @Setup
+    public void setup() {
+        User user = BenchmarkFixtures.user();
+        UserDetailsService userDetailsService = username -> user;
+        JwtUtils jwtUtils = BenchmarkFixtures.jwtUtils("HS256", tokenCache);
+        filter = new JwtAuthenticationFilter(jwtUtils, userDetailsService,
+                BenchmarkFixtures.userStatusRegistry(stateless), BenchmarkFixtures.tokenRevocationService(),
+                BenchmarkFixtures.meterRegistry());
+
+        request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.setServletPath("/users/me");
+        request.addHeader("Authorization", "Bearer " + jwtUtils.generateJwtToken(BenchmarkFixtures.authentication(user)));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        filter.doFilter(request, response, filterChain);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
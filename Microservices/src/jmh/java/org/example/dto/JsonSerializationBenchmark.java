@@ -0,0 +1,75 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.BenchmarkFixtures;
+import org.example.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// 登录响应与用户信息的JSON序列化，ObjectMapper与Spring Boot默认配置一致（日期输出为ISO字符串）
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private UserResponseDto userResponse;
+
+    private JwtResponseDto jwtResponse;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        User user = BenchmarkFixtures.user();
+        userResponse = UserResponseDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .fullName(user.getFullName())
+                .phone(user.getPhone())
+                .role(user.getRole())
+                .status(user.getStatus())
+                .createdAt(user.getCreatedAt())
+                .lastLogin(user.getLastLogin())
+                .version(user.getVersion())
+                .build();
+        jwtResponse = JwtResponseDto.builder()
+                .accessToken(BenchmarkFixtures.jwtUtils("HS256", false)
+                        .generateJwtToken(BenchmarkFixtures.authentication(user)))
+                .tokenType("Bearer")
+                .expiresIn(BenchmarkFixtures.JWT_EXPIRATION_MS)
+                .refreshToken("q7Hn0cXJ3kq8Zb1mY2v9sT4wR6pL0aDfGhJkLzXcVbN")
+                .refreshExpiresIn(604800000L)
+                .user(userResponse)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeUserResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeJwtResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(jwtResponse);
+    }
+}
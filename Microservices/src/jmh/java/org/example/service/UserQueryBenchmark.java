@@ -0,0 +1,134 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManager;
+import org.example.Main;
+import org.example.dto.UserResponseDto;
+import org.example.model.User;
+import org.example.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 用户详情与用户列表：接口投影查询与实体查询（含查询、结果映射、持久化上下文与DTO构建）
+// 启动完整的Spring容器，使用测试配置的H2内存库；关闭二级缓存，两种方式每次都查询数据库
+// 与UserService相同，每次调用在只读事务中执行；整个调用栈较深，需要较长预热才能达到稳定吞吐量
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 15, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserQueryBenchmark {
+
+    private static final int USER_COUNT = 10000;
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String INSERT_SQL = "INSERT INTO users (username, email, password, full_name, phone, role, " +
+            "status, created_at, last_login) VALUES (?, ?, ?, ?, ?, 'USER', 'ACTIVE', ?, ?)";
+
+    private static final String ENTITY_PAGE_QUERY = "SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id ASC";
+
+    private ConfigurableApplicationContext context;
+
+    private UserRepository userRepository;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private long minId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(Main.class)
+                .profiles("test")
+                .properties("auth.entity-cache.enabled=false", "logging.file.name=target/jmh.log")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            rows.add(new Object[]{"bench_" + i, "bench_" + i + "@example.com",
+                    "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1rKzrNmDo0vGtR0yvtvHk6a",
+                    "Benchmark User " + i, "13800000000", now, now});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate(INSERT_SQL, rows);
+        minId = context.getBean(JdbcTemplate.class)
+                .queryForObject("SELECT MIN(id) FROM users WHERE username LIKE 'bench\\_%'", Long.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return minId + ThreadLocalRandom.current().nextInt(USER_COUNT - PAGE_SIZE);
+    }
+
+    // 当前实现：UserService.getUserById
+    @Benchmark
+    public UserResponseDto findByIdProjection() {
+        long id = randomId();
+        return readOnlyTransaction.execute(status ->
+                userRepository.findViewById(id).map(UserService::buildUserResponseDto).orElseThrow());
+    }
+
+    // 修改前：加载实体再构建DTO
+    @Benchmark
+    public UserResponseDto findByIdEntity() {
+        long id = randomId();
+        return readOnlyTransaction.execute(status ->
+                userRepository.findById(id).map(UserService::buildUserResponseDto).orElseThrow());
+    }
+
+    // 当前实现：UserService.getAllUsers（按ID排序的一页）
+    @Benchmark
+    public List<UserResponseDto> pageProjection() {
+        long afterId = randomId();
+        return readOnlyTransaction.execute(status ->
+                userRepository.findPageOrderById(null, null, afterId, Limit.of(PAGE_SIZE)).stream()
+                        .map(UserService::buildUserResponseDto)
+                        .toList());
+    }
+
+    // 修改前：查询实体列表再构建DTO
+    @Benchmark
+    public List<UserResponseDto> pageEntity() {
+        long afterId = randomId();
+        return readOnlyTransaction.execute(status ->
+                entityManager.createQuery(ENTITY_PAGE_QUERY, User.class)
+                        .setParameter("afterId", afterId)
+                        .setMaxResults(PAGE_SIZE)
+                        .getResultStream()
+                        .map(UserService::buildUserResponseDto)
+                        .toList());
+    }
+}
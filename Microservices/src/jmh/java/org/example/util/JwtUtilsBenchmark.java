@@ -0,0 +1,96 @@
+package org.example.util;
+
+import io.jsonwebtoken.Claims;
+import org.example.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+// 令牌签发、验证（经过/不经过已验证令牌缓存）与用户名提取
+// 结束时检查缓存命中路径的分配量：每次命中只允许分配查找键（TokenDigest，48字节），超出时报错
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+
+    private static final long HIT_ALLOCATION_BUDGET_BYTES = 48;
+
+    private static final int HIT_ALLOCATION_SAMPLES = 100_000;
+
+    @Param({"HS256", "RS256"})
+    private String algorithm;
+
+    private JwtUtils jwtUtils;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtils = BenchmarkFixtures.jwtUtils(algorithm, true);
+        authentication = BenchmarkFixtures.authentication(BenchmarkFixtures.user());
+        token = jwtUtils.generateJwtToken(authentication);
+        if (!jwtUtils.verify(token).isValid()) {
+            throw new IllegalStateException("令牌验证失败");
+        }
+    }
+
+    // 在已预热的JIT代码上测量当前线程的分配字节数（与 -prof gc 的 gc.alloc.rate.norm 口径相同）
+    @TearDown(Level.Trial)
+    public void checkHitAllocation() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < HIT_ALLOCATION_SAMPLES; i++) {
+            verifyCached();
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < HIT_ALLOCATION_SAMPLES; i++) {
+            verifyCached();
+        }
+        long perHit = (threads.getThreadAllocatedBytes(threadId) - before) / HIT_ALLOCATION_SAMPLES;
+        if (perHit > HIT_ALLOCATION_BUDGET_BYTES) {
+            throw new IllegalStateException("缓存命中路径每次分配 " + perHit + " 字节，超过 "
+                    + HIT_ALLOCATION_BUDGET_BYTES + " 字节");
+        }
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    // 过滤器使用的路径：命中已验证令牌缓存
+    @Benchmark
+    public Claims verifyCached() {
+        return jwtUtils.verify(token).getClaims();
+    }
+
+    // 每次都做签名校验与解析
+    @Benchmark
+    public Claims verifyUncached() {
+        return jwtUtils.verifyUncached(token).getClaims();
+    }
+
+    @Benchmark
+    public String getUserName() {
+        return jwtUtils.getUserNameFromJwtToken(token);
+    }
+}
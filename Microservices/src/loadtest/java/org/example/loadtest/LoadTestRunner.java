@@ -0,0 +1,511 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.Main;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// 端到端压测：在H2（MySQL兼容模式，按init_db.sql建表）上启动完整的Spring应用，不需要MySQL或网络
+// 以固定并发的闭环方式按比例混合请求登录、注册、当前用户、按ID查询用户与管理员分页列表，
+// 报告吞吐量、p50/p99/p999延迟、连接池等待时间与每个请求的服务端内存分配，并按阈值判定是否通过
+// --loadtest.replica=true 时启用读写分离，以另一个H2内存库作为只读副本（压测用户同时写入两个库，期间的写入不复制到副本）
+public class LoadTestRunner {
+
+    private static final String PASSWORD = "loadtest123";
+
+    private static final String USERNAME_PREFIX = "lt_user_";
+
+    // 延迟直方图的范围：1微秒到60秒，3位有效数字
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    // 压测环境的默认配置，可用同名命令行参数覆盖（如 --spring.datasource.hikari.maximum-pool-size=20）
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE");
+        DEFAULTS.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        DEFAULTS.put("spring.datasource.username", "sa");
+        DEFAULTS.put("spring.datasource.password", "");
+        DEFAULTS.put("spring.sql.init.mode", "always");
+        DEFAULTS.put("spring.sql.init.schema-locations", "classpath:init_db.sql");
+        DEFAULTS.put("spring.jpa.hibernate.ddl-auto", "none");
+        DEFAULTS.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        DEFAULTS.put("spring.jpa.show-sql", "false");
+        DEFAULTS.put("server.port", "0");
+        DEFAULTS.put("logging.level.root", "WARN");
+        DEFAULTS.put("logging.level.org.example", "WARN");
+        DEFAULTS.put("logging.level.org.springframework.security", "WARN");
+        DEFAULTS.put("logging.level.org.hibernate.SQL", "WARN");
+        DEFAULTS.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        DEFAULTS.put("logging.file.name", "target/loadtest/app.log");
+        // devtools在测试类路径上，按生产环境（打包时不含devtools）关闭其自动配置与默认属性
+        DEFAULTS.put("spring.devtools.add-properties", "false");
+        DEFAULTS.put("spring.autoconfigure.exclude",
+                "org.springframework.boot.devtools.autoconfigure.LocalDevToolsAutoConfiguration,"
+                        + "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration");
+        // 所有请求来自同一IP，压测默认关闭登录/注册限流
+        DEFAULTS.put("auth.rate-limit.enabled", "false");
+    }
+
+    // 只读副本的默认配置（--loadtest.replica=true时生效），用户名、密码与驱动沿用主库配置
+    private static final Map<String, String> REPLICA_DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        REPLICA_DEFAULTS.put("datasource.routing.enabled", "true");
+        REPLICA_DEFAULTS.put("datasource.replica.url", "jdbc:h2:mem:loadtest_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+    }
+
+    private enum Operation {
+        LOGIN(200), REGISTER(201), ME(200), USER(200), LIST(200);
+
+        private final int expectedStatus;
+
+        Operation(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final ConfigurableApplicationContext context;
+
+    private final Environment environment;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final String baseUrl;
+
+    private final int concurrency;
+
+    private final int userCount;
+
+    private final Map<Operation, Integer> mix;
+
+    private final int totalWeight;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    private final long runId = System.currentTimeMillis() % 100000;
+
+    private long firstUserId;
+
+    private String adminToken;
+
+    private final List<String> userTokens = new ArrayList<>();
+
+    private volatile boolean running = true;
+
+    // 连接池名称 -> 测量期间等待连接的线程数峰值
+    private final Map<String, Integer> maxPending = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        // 重启类加载器在读取配置之前启动，只能通过系统属性关闭
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = SpringApplication.run(Main.class, withDefaults(args));
+        boolean passed;
+        try {
+            passed = new LoadTestRunner(context).run();
+        } finally {
+            context.close();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    // 合并默认配置与命令行参数（同一参数重复出现时Spring会以逗号拼接，因此在这里合并）
+    private static String[] withDefaults(String[] args) {
+        Map<String, String> properties = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("参数格式应为 --name=value: " + arg);
+            }
+            properties.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        if (Boolean.parseBoolean(properties.get("loadtest.replica"))) {
+            REPLICA_DEFAULTS.forEach(properties::putIfAbsent);
+        }
+        return properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    LoadTestRunner(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.environment = context.getEnvironment();
+        this.meterRegistry = context.getBean(MeterRegistry.class);
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.baseUrl = "http://localhost:" + environment.getProperty("local.server.port")
+                + environment.getProperty("server.servlet.context-path", "");
+        this.concurrency = environment.getProperty("loadtest.concurrency", Integer.class, 16);
+        this.userCount = environment.getProperty("loadtest.users", Integer.class, 1000);
+        this.mix = parseMix(environment.getProperty("loadtest.mix", "login=10,register=2,me=50,user=25,list=13"));
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(MAX_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    boolean run() throws Exception {
+        Duration warmup = environment.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(10));
+        Duration duration = environment.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(30));
+
+        seed();
+        System.out.printf("压测开始：并发 %d，预热 %ds，测量 %ds，请求比例 %s%n",
+                concurrency, warmup.toSeconds(), duration.toSeconds(), mix);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(this::work, "loadtest-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        Thread.sleep(warmup.toMillis());
+
+        // 丢弃预热期间的数据后开始测量
+        recorders.values().forEach(Recorder::getIntervalHistogram);
+        errors.values().forEach(LongAdder::reset);
+        Map<String, Timer> acquireTimers = new LinkedHashMap<>();
+        meterRegistry.find("hikaricp.connections.acquire").timers()
+                .forEach(timer -> acquireTimers.put(timer.getId().getTag("pool"), timer));
+        Map<String, Long> acquireCountBefore = new LinkedHashMap<>();
+        Map<String, Double> acquireNanosBefore = new LinkedHashMap<>();
+        acquireTimers.forEach((pool, timer) -> {
+            acquireCountBefore.put(pool, timer.count());
+            acquireNanosBefore.put(pool, timer.totalTime(TimeUnit.NANOSECONDS));
+        });
+        Map<String, Double> routedBefore = routedConnections();
+        long allocatedBefore = serverAllocatedBytes();
+        long startedAt = System.nanoTime();
+
+        Thread monitor = new Thread(this::monitorPool, "loadtest-monitor");
+        monitor.setDaemon(true);
+        monitor.start();
+        Thread.sleep(duration.toMillis());
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        long allocatedBytes = serverAllocatedBytes() - allocatedBefore;
+        Map<String, Object> pools = new LinkedHashMap<>();
+        acquireTimers.forEach((name, timer) -> {
+            long acquireCount = timer.count() - acquireCountBefore.get(name);
+            double acquireNanos = timer.totalTime(TimeUnit.NANOSECONDS) - acquireNanosBefore.get(name);
+            Map<String, Object> pool = new LinkedHashMap<>();
+            pool.put("acquireCount", acquireCount);
+            pool.put("acquireMeanMs", acquireCount > 0 ? acquireNanos / acquireCount / 1e6 : 0.0);
+            pool.put("acquireMaxMs", timer.max(TimeUnit.MILLISECONDS));
+            pool.put("maxPending", maxPending.getOrDefault(name, 0));
+            pools.put(name, pool);
+        });
+        Map<String, Double> routed = routedConnections();
+        routed.replaceAll((key, value) -> value - routedBefore.getOrDefault(key, 0.0));
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        histograms.values().forEach(total::add);
+        long totalErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", elapsedSeconds);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        histograms.forEach((operation, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                operations.put(operation.key(), latencyReport(histogram, errors.get(operation).sum(), elapsedSeconds));
+            }
+        });
+        report.put("operations", operations);
+        report.put("total", latencyReport(total, totalErrors, elapsedSeconds));
+        report.put("hikari", pools);
+        if (!routed.isEmpty()) {
+            report.put("routing", routed);
+        }
+        report.put("allocatedBytesPerRequest", total.getTotalCount() > 0 ? allocatedBytes / total.getTotalCount() : 0);
+
+        printReport(report);
+        Path reportPath = Path.of(environment.getProperty("loadtest.report", "target/loadtest/report.json"));
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportPath.toFile(), report);
+        System.out.println("报告已写入 " + reportPath.toAbsolutePath());
+
+        return check(total, totalErrors);
+    }
+
+    // 按阈值判定：总体p99（loadtest.max-p99-ms，0表示不检查）与错误率（loadtest.max-error-rate）
+    private boolean check(Histogram total, long totalErrors) {
+        double maxP99Ms = environment.getProperty("loadtest.max-p99-ms", Double.class, 0.0);
+        double maxErrorRate = environment.getProperty("loadtest.max-error-rate", Double.class, 0.01);
+        boolean passed = true;
+        double p99Ms = total.getValueAtPercentile(99) / 1000.0;
+        if (maxP99Ms > 0 && p99Ms > maxP99Ms) {
+            System.out.printf("未通过：p99 %.2fms 超过阈值 %.2fms%n", p99Ms, maxP99Ms);
+            passed = false;
+        }
+        double errorRate = total.getTotalCount() > 0 ? (double) totalErrors / total.getTotalCount() : 1.0;
+        if (errorRate > maxErrorRate) {
+            System.out.printf("未通过：错误率 %.4f 超过阈值 %.4f%n", errorRate, maxErrorRate);
+            passed = false;
+        }
+        if (passed) {
+            System.out.println("通过");
+        }
+        return passed;
+    }
+
+    // 写入压测用户（所有用户使用同一密码哈希，强度与服务当前BCrypt强度一致），为管理员设置已知密码，并预先登录一批用户
+    // 启用读写分离时在只读副本上建表并写入相同的数据，两个库中的用户ID一致
+    private void seed() throws IOException, InterruptedException {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<Object[]> rows = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            rows.add(new Object[]{USERNAME_PREFIX + i, USERNAME_PREFIX + i + "@example.com", passwordHash, "压测用户" + i});
+        }
+        insertUsers(jdbcTemplate, passwordHash, rows);
+        if (environment.getProperty("datasource.routing.enabled", Boolean.class, false)) {
+            DriverManagerDataSource replica = new DriverManagerDataSource(
+                    environment.getRequiredProperty("datasource.replica.url"),
+                    environment.getProperty("datasource.replica.username", environment.getProperty("spring.datasource.username")),
+                    environment.getProperty("datasource.replica.password", environment.getProperty("spring.datasource.password")));
+            new ResourceDatabasePopulator(new ClassPathResource("init_db.sql")).execute(replica);
+            insertUsers(new JdbcTemplate(replica), passwordHash, rows);
+        }
+        firstUserId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE username LIKE ?", Long.class,
+                USERNAME_PREFIX + "%");
+
+        adminToken = login("admin");
+        int tokenPool = Math.min(userCount, environment.getProperty("loadtest.token-pool", Integer.class, 50));
+        for (int i = 0; i < tokenPool; i++) {
+            userTokens.add(login(USERNAME_PREFIX + i));
+        }
+        System.out.printf("已写入 %d 个压测用户，预先登录 %d 个%n", userCount, tokenPool);
+    }
+
+    private static void insertUsers(JdbcTemplate jdbcTemplate, String passwordHash, List<Object[]> rows) {
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE username = 'admin'", passwordHash);
+        jdbcTemplate.batchUpdate("INSERT INTO users (username, email, password, full_name, role, status) "
+                + "VALUES (?, ?, ?, ?, 'USER', 'ACTIVE')", rows);
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(loginRequest(username), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("登录失败（" + response.statusCode() + "）: " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private void work() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            Operation operation = pick(random);
+            HttpRequest request = request(operation, random);
+            long startedAt = System.nanoTime();
+            boolean success;
+            try {
+                success = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()
+                        == operation.expectedStatus;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long latencyMicros = Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - startedAt) / 1000);
+            recorders.get(operation).recordValue(Math.max(1L, latencyMicros));
+            if (!success) {
+                errors.get(operation).increment();
+            }
+        }
+    }
+
+    private Operation pick(ThreadLocalRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+        return switch (operation) {
+            case LOGIN -> loginRequest(USERNAME_PREFIX + random.nextInt(userCount));
+            case REGISTER -> {
+                String username = "lt_new_" + runId + "_" + registrations.incrementAndGet();
+                yield post("/auth/register", "{\"username\":\"" + username + "\",\"email\":\"" + username
+                        + "@example.com\",\"password\":\"" + PASSWORD + "\"}");
+            }
+            case ME -> get("/users/me", userTokens.get(random.nextInt(userTokens.size())));
+            case USER -> get("/users/" + (firstUserId + random.nextInt(userCount)),
+                    userTokens.get(random.nextInt(userTokens.size())));
+            case LIST -> get("/users?size=20", adminToken);
+        };
+    }
+
+    private HttpRequest loginRequest(String username) {
+        return post("/auth/login", "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}");
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    // 每50毫秒采样一次各连接池等待连接的线程数
+    private void monitorPool() {
+        Collection<Gauge> pending = meterRegistry.find("hikaricp.connections.pending").gauges();
+        while (running && !pending.isEmpty()) {
+            for (Gauge gauge : pending) {
+                maxPending.merge(gauge.getId().getTag("pool"), (int) gauge.value(), Math::max);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // 读写分离时按目标数据源统计的连接获取次数，未启用时为空
+    private Map<String, Double> routedConnections() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (Counter counter : meterRegistry.find("datasource.routing.connections").counters()) {
+            result.put(counter.getId().getTag("target"), counter.count());
+        }
+        Counter readYourWrites = meterRegistry.find("datasource.routing.read_your_writes").counter();
+        if (readYourWrites != null) {
+            result.put("readYourWrites", readYourWrites.count());
+        }
+        return result;
+    }
+
+    // 服务端线程（不含压测线程与HttpClient线程）累计分配的字节数；测量期间退出的线程不计入
+    private static long serverAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            String name = thread.getName();
+            if (name.startsWith("loadtest-") || name.startsWith("HttpClient-") || thread == Thread.currentThread()) {
+                continue;
+            }
+            long allocated = threads.getThreadAllocatedBytes(thread.getId());
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    private static Map<String, Object> latencyReport(Histogram histogram, long errorCount, double elapsedSeconds) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", histogram.getTotalCount());
+        result.put("errors", errorCount);
+        result.put("throughput", histogram.getTotalCount() / elapsedSeconds);
+        result.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        result.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        result.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        result.put("maxMs", histogram.getMaxValue() / 1000.0);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printReport(Map<String, Object> report) {
+        System.out.printf("%-10s %10s %8s %12s %10s %10s %10s %10s%n",
+                "操作", "请求数", "错误", "吞吐(req/s)", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        Map<String, Object> rows = new LinkedHashMap<>((Map<String, Object>) report.get("operations"));
+        rows.put("total", report.get("total"));
+        rows.forEach((name, value) -> {
+            Map<String, Object> row = (Map<String, Object>) value;
+            System.out.printf("%-10s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f%n", name,
+                    row.get("requests"), row.get("errors"), row.get("throughput"),
+                    row.get("p50Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"));
+        });
+        ((Map<String, Object>) report.get("hikari")).forEach((name, value) -> {
+            Map<String, Object> pool = (Map<String, Object>) value;
+            System.out.printf("连接池 %s 等待：%d 次获取，平均 %.3fms，最大 %.3fms，等待线程峰值 %d%n", name,
+                    pool.get("acquireCount"), pool.get("acquireMeanMs"), pool.get("acquireMaxMs"), pool.get("maxPending"));
+        });
+        if (report.containsKey("routing")) {
+            System.out.printf("读写分离：%s%n", report.get("routing"));
+        }
+        System.out.printf("服务端分配：%d 字节/请求%n", report.get("allocatedBytesPerRequest"));
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> result = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                result.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix 中没有权重大于0的操作");
+        }
+        return result;
+    }
+}
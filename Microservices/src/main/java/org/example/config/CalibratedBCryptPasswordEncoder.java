@@ -0,0 +1,82 @@
+package org.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 可按当前机器性能确定工作因子的BCrypt编码器
+// 强度默认由配置指定；配置为0时启动时测量单次哈希耗时，选取不超过耗时预算的最大强度
+// 强度低于当前强度的已存哈希会在登录时升级，强度更高的不降级：硬件不同的实例即使强度不同，也不会来回重新哈希
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    // 每个强度的测量次数，取最小值以排除抖动
+    private static final int SAMPLES = 3;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    // 已存哈希的强度低于当前强度时需要重新哈希，格式不正确的哈希不处理
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int storedStrength = strengthOf(encodedPassword);
+        return storedStrength > 0 && storedStrength < strength;
+    }
+
+    // 解析BCrypt哈希中的强度，格式不正确时返回-1
+    public static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() ? Integer.parseInt(matcher.group(2)) : -1;
+    }
+
+    // 选取单次哈希耗时不超过预算的最大强度，结果限制在[minStrength, maxStrength]内
+    public static int calibrate(long targetMs, int minStrength, int maxStrength) {
+        // 预热，避免首次测量包含类加载与JIT开销
+        measure(4);
+        measure(minStrength);
+
+        int chosen = minStrength;
+        long chosenNanos = measure(minStrength);
+        for (int candidate = minStrength + 1; candidate <= maxStrength; candidate++) {
+            // 强度每加1耗时翻倍，预计超出预算时不再实测
+            if (chosenNanos * 2 > targetMs * 1_000_000L) {
+                break;
+            }
+            long nanos = measure(candidate);
+            if (nanos > targetMs * 1_000_000L) {
+                break;
+            }
+            chosen = candidate;
+            chosenNanos = nanos;
+        }
+        logger.info("BCrypt强度校准完成: 强度={}, 单次耗时={}ms, 预算={}ms", chosen, chosenNanos / 1_000_000L, targetMs);
+        return chosen;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-password");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
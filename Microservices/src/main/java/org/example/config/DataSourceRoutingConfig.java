@@ -0,0 +1,88 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// 读写分离（datasource.routing.enabled=true时启用）：主库使用spring.datasource配置，只读副本使用datasource.replica配置
+// 两个连接池分别配置大小并以各自的pool-name上报hikaricp.*指标，应用中注入的DataSource按事务是否只读选择连接池
+@Configuration
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${datasource.routing.read-your-writes-window:5000}")
+    private long readYourWritesWindowMs;
+
+    @Value("${datasource.routing.maximum-writers:100000}")
+    private long maximumWriters;
+
+    @Value("${datasource.replica.url}")
+    private String replicaUrl;
+
+    // 未配置时与主库相同
+    @Value("${datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replica.driver-class-name:${spring.datasource.driver-class-name:}}")
+    private String replicaDriverClassName;
+
+    // 主库连接池，spring.datasource.hikari.*配置照常生效
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("HikariPool-primary");
+        return dataSource;
+    }
+
+    // 只读副本连接池，datasource.replica.hikari.*配置与spring.datasource.hikari.*含义相同
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .driverClassName(StringUtils.hasText(replicaDriverClassName) ? replicaDriverClassName : null)
+                .build();
+        dataSource.setPoolName("HikariPool-replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    // 延迟到第一条语句执行时才获取真实连接，此时事务的只读标志已设置，路由才能生效
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") HikariDataSource replicaDataSource) {
+        ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(readYourWritesWindowMs, maximumWriters, meterRegistry);
+        routingDataSource.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
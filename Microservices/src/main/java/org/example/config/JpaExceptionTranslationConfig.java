@@ -0,0 +1,31 @@
+package org.example.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+
+// JPA仓库方法的约束冲突默认一律转换为DataIntegrityViolationException，无法区分唯一索引冲突与非空、长度等其他约束
+// 改为与JdbcTemplate相同按数据库错误码转换：唯一索引冲突为DuplicateKeyException，其余仍为DataIntegrityViolationException
+@Configuration
+public class JpaExceptionTranslationConfig {
+
+    // 静态方法，避免提前初始化配置类；错误码在第一次转换异常时才读取
+    @Bean
+    public static BeanPostProcessor jpaExceptionTranslatorPostProcessor(ObjectProvider<DataSource> dataSource) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HibernateJpaVendorAdapter adapter) {
+                    adapter.getJpaDialect().setJdbcExceptionTranslator(
+                            new SQLErrorCodeSQLExceptionTranslator(dataSource.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,6 +1,13 @@
 package org.example.config;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.model.User;
+import org.example.service.TokenRevocationService;
+import org.example.service.UserStatusRegistry;
 import org.example.util.JwtUtils;
+import org.example.util.JwtVerificationResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +24,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
@@ -27,41 +35,107 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    @Autowired
+    private UserStatusRegistry userStatusRegistry;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // 认证耗时（不含后续过滤器与请求处理），按结果区分：authenticated/rejected/anonymous（未带令牌）
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+    private final Timer anonymousTimer;
+
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService,
+                                   UserStatusRegistry userStatusRegistry,
+                                   TokenRevocationService tokenRevocationService,
+                                   MeterRegistry meterRegistry) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.userStatusRegistry = userStatusRegistry;
+        this.tokenRevocationService = tokenRevocationService;
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+        this.anonymousTimer = filterTimer(meterRegistry, "anonymous");
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        Timer outcome = rejectedTimer;
         try {
             // 从请求头中获取JWT令牌
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                // 从JWT令牌中提取用户名
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                // 加载用户信息
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                // 创建认证对象
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                
-                // 设置认证详情
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                // 将认证对象设置到SecurityContext中
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (jwt == null) {
+                outcome = anonymousTimer;
+            }
+            // 验证令牌并提取声明（签名校验与解析只执行一次）
+            JwtVerificationResult verification = jwt != null ? jwtUtils.verify(jwt) : null;
+            if (verification != null && verification.isValid()) {
+                // 验证结果可能来自缓存，吊销检查在缓存之后进行
+                if (tokenRevocationService.isRevoked(verification.getClaims())) {
+                    logger.warn("令牌已被吊销: {}", verification.getClaims().getId());
+                } else {
+                    // 加载用户信息
+                    UserDetails userDetails = loadUserDetails(verification.getClaims());
+
+                    if (userDetails.isEnabled()) {
+                        // 创建认证对象
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities());
+
+                        // 设置认证详情
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                        // 将认证对象设置到SecurityContext中
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        outcome = authenticatedTimer;
+                    } else {
+                        // 已禁用的用户不予认证
+                        logger.warn("用户已被禁用: {}", userDetails.getUsername());
+                    }
+                }
             }
         } catch (Exception e) {
             logger.error("无法设置用户认证: {}", e.getMessage());
         }
+        outcome.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
 
         // 继续过滤器链
         filterChain.doFilter(request, response);
     }
 
+    // 加载用户主体：无状态模式下在过期窗口内直接由令牌声明构建，否则查询数据库
+    private UserDetails loadUserDetails(Claims claims) {
+        if (!userStatusRegistry.isEnabled()) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        Long userId = claims.get(JwtUtils.CLAIM_USER_ID, Long.class);
+        UserStatusRegistry.Snapshot snapshot = userId != null ? userStatusRegistry.current(userId, claims) : null;
+        if (snapshot != null) {
+            return User.builder()
+                    .id(userId)
+                    .username(claims.getSubject())
+                    .role(snapshot.getRole())
+                    .status(snapshot.getStatus())
+                    .build();
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (userDetails instanceof User user) {
+            userStatusRegistry.record(user);
+        }
+        return userDetails;
+    }
+
+    private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.filter.jwt")
+                .description("JWT认证过滤器耗时")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     // 从请求头中解析JWT令牌
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
@@ -0,0 +1,44 @@
+package org.example.config;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// 监控指标抓取专用账号（HTTP Basic）：凭据来自配置，不对应数据库中的用户，只能访问指标端点
+// 每次抓取都要校验，按常量时间比较明文而不做BCrypt哈希；密码为空时拒绝所有请求
+public class MetricsScrapeAuthenticationProvider implements AuthenticationProvider {
+
+    public static final String ROLE = "METRICS";
+
+    private final String username;
+
+    private final byte[] password;
+
+    public MetricsScrapeAuthenticationProvider(String username, String password) {
+        this.username = username;
+        this.password = password.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String presented = authentication.getCredentials() != null ? authentication.getCredentials().toString() : "";
+        if (password.length == 0 || !StringUtils.hasText(presented) || !username.equals(authentication.getName())
+                || !MessageDigest.isEqual(password, presented.getBytes(StandardCharsets.UTF_8))) {
+            throw new BadCredentialsException("监控账号或密码错误");
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                AuthorityUtils.createAuthorityList("ROLE_" + ROLE));
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
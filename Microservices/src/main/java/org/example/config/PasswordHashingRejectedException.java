@@ -0,0 +1,16 @@
+package org.example.config;
+
+// 密码哈希线程池队列已满时抛出，由全局异常处理器转换为503响应
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("密码哈希队列已满");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,282 @@
+package org.example.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.dto.ErrorResponseDto;
+import org.example.util.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 登录/注册限流：分别按客户端IP与请求体中的用户名使用令牌桶限流，超出时返回429与Retry-After
+// 用户名/邮箱可用性检查只按IP限流，限制匿名枚举已注册的用户名与邮箱
+// 位于JWT认证过滤器之前，被拒绝的请求不会触发数据库查询与密码哈希
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    // 提取用户名时最多缓存的请求体字节数，超出部分原样转发，用户名不在其中时只按IP限流
+    private static final int MAX_BODY_BYTES = 8192;
+
+    // 用户名键的最大长度，避免超长用户名占用限流表内存
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${auth.rate-limit.maximum-keys:100000}")
+    private long maximumKeys;
+
+    @Value("${auth.rate-limit.login.ip.capacity:30}")
+    private long loginIpCapacity;
+
+    @Value("${auth.rate-limit.login.ip.per-minute:30}")
+    private long loginIpPerMinute;
+
+    @Value("${auth.rate-limit.login.username.capacity:10}")
+    private long loginUsernameCapacity;
+
+    @Value("${auth.rate-limit.login.username.per-minute:5}")
+    private long loginUsernamePerMinute;
+
+    @Value("${auth.rate-limit.register.ip.capacity:10}")
+    private long registerIpCapacity;
+
+    @Value("${auth.rate-limit.register.ip.per-minute:5}")
+    private long registerIpPerMinute;
+
+    @Value("${auth.rate-limit.register.username.capacity:3}")
+    private long registerUsernameCapacity;
+
+    @Value("${auth.rate-limit.register.username.per-minute:1}")
+    private long registerUsernamePerMinute;
+
+    @Value("${auth.rate-limit.availability.ip.capacity:60}")
+    private long availabilityIpCapacity;
+
+    @Value("${auth.rate-limit.availability.ip.per-minute:60}")
+    private long availabilityIpPerMinute;
+
+    // 受限流的路径（不含context-path）-> 限流规则
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+
+    public RateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        endpoints.put("/auth/login", new Endpoint(HttpMethod.POST,
+                limit("login", "ip", loginIpCapacity, loginIpPerMinute),
+                limit("login", "username", loginUsernameCapacity, loginUsernamePerMinute)));
+        endpoints.put("/auth/register", new Endpoint(HttpMethod.POST,
+                limit("register", "ip", registerIpCapacity, registerIpPerMinute),
+                limit("register", "username", registerUsernameCapacity, registerUsernamePerMinute)));
+        endpoints.put("/auth/availability", new Endpoint(HttpMethod.GET,
+                limit("availability", "ip", availabilityIpCapacity, availabilityIpPerMinute), null));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        Endpoint endpoint = endpoints.get(request.getServletPath());
+        return endpoint == null || !endpoint.method().matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Endpoint endpoint = endpoints.get(request.getServletPath());
+
+        // 先按IP限流，被拒绝时不再读取请求体
+        if (endpoint.ip() != null && reject(endpoint.ip(), request.getRemoteAddr(), response)) {
+            return;
+        }
+
+        if (endpoint.username() != null) {
+            CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+            request = cachedRequest;
+            String username = readUsername(cachedRequest.getCachedBody());
+            if (username != null && reject(endpoint.username(), username, response)) {
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // 取令牌失败时写出429响应并返回true
+    private boolean reject(Limit limit, String key, HttpServletResponse response) throws IOException {
+        long waitNanos = limit.limiter().tryAcquire(key);
+        if (waitNanos == 0L) {
+            limit.allowed().increment();
+            return false;
+        }
+        limit.rejected().increment();
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        logger.debug("请求过于频繁: {}={}, {}秒后重试", limit.key(), key, retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponseDto("请求过于频繁，请稍后重试"));
+        return true;
+    }
+
+    // 用流式解析器只读取顶层的username字段，请求体不是JSON对象或没有用户名时返回null（由后续校验返回400）
+    private String readUsername(byte[] body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("username".equals(field) && value == JsonToken.VALUE_STRING) {
+                    String username = parser.getText().trim().toLowerCase(Locale.ROOT);
+                    if (username.isEmpty()) {
+                        return null;
+                    }
+                    return username.length() > MAX_KEY_LENGTH ? username.substring(0, MAX_KEY_LENGTH) : username;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            logger.debug("无法从请求体中读取用户名: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    // 创建限流器并注册指标，容量或速率为0时不限流
+    private Limit limit(String endpoint, String key, long capacity, long perMinute) {
+        if (capacity <= 0 || perMinute <= 0) {
+            return null;
+        }
+        RateLimiter limiter = new RateLimiter(capacity, perMinute, maximumKeys);
+        Gauge.builder("auth.rate_limit.capacity", limiter, RateLimiter::getCapacity)
+                .description("令牌桶容量（允许的突发请求数）")
+                .tags("endpoint", endpoint, "key", key)
+                .register(meterRegistry);
+        Gauge.builder("auth.rate_limit.per_minute", limiter, RateLimiter::getPermitsPerMinute)
+                .description("令牌桶每分钟补充的令牌数")
+                .tags("endpoint", endpoint, "key", key)
+                .register(meterRegistry);
+        Gauge.builder("auth.rate_limit.keys", limiter, RateLimiter::size)
+                .description("限流器当前跟踪的键数")
+                .tags("endpoint", endpoint, "key", key)
+                .register(meterRegistry);
+        return new Limit(key, limiter,
+                requestCounter(endpoint, key, "allowed"),
+                requestCounter(endpoint, key, "rejected"));
+    }
+
+    private Counter requestCounter(String endpoint, String key, String result) {
+        return Counter.builder("auth.rate_limit.requests")
+                .description("限流检查次数")
+                .tags("endpoint", endpoint, "key", key, "result", result)
+                .register(meterRegistry);
+    }
+
+    private record Endpoint(HttpMethod method, Limit ip, Limit username) {
+    }
+
+    private record Limit(String key, RateLimiter limiter, Counter allowed, Counter rejected) {
+    }
+
+    // 预先读取请求体开头（最多MAX_BODY_BYTES字节）以提取用户名，后续读取时先返回缓存部分再读取剩余内容
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] cachedBody;
+
+        private final ServletInputStream inputStream;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            ServletInputStream original = request.getInputStream();
+            this.cachedBody = original.readNBytes(MAX_BODY_BYTES);
+            this.inputStream = new ServletInputStream() {
+                private int position;
+
+                @Override
+                public int read() throws IOException {
+                    return position < cachedBody.length ? cachedBody[position++] & 0xff : original.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    if (position < cachedBody.length) {
+                        int count = Math.min(length, cachedBody.length - position);
+                        System.arraycopy(cachedBody, position, buffer, offset, count);
+                        position += count;
+                        return count;
+                    }
+                    return original.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return position >= cachedBody.length && (cachedBody.length < MAX_BODY_BYTES || original.isFinished());
+                }
+
+                @Override
+                public boolean isReady() {
+                    return position < cachedBody.length || original.isReady();
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    original.setReadListener(readListener);
+                }
+            };
+        }
+
+        byte[] getCachedBody() {
+            return cachedBody;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(inputStream, charset));
+        }
+    }
+}
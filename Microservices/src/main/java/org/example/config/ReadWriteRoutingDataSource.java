@@ -0,0 +1,86 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// 读写分离数据源：只读事务（@Transactional(readOnly = true) 及Spring Data默认只读的查询方法）使用只读副本，其余使用主库
+// 当前用户在读己之写窗口内执行过读写事务时，其只读事务仍使用主库，避免读到副本延迟之前的数据
+// 该窗口只保护执行写入的调用方本人；认证路径按用户名加载用户不使用只读事务，始终读主库（见UserNaturalIdRepositoryImpl）
+// 需要由LazyConnectionDataSourceProxy包装，使连接在事务的只读标志设置之后才真正获取
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    // 最近执行过读写事务的用户名，窗口过后自动过期；窗口为0时不记录
+    private final Cache<String, Boolean> recentWriters;
+
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter readYourWritesCounter;
+
+    public ReadWriteRoutingDataSource(long readYourWritesWindowMs, long maximumWriters, MeterRegistry meterRegistry) {
+        this.recentWriters = readYourWritesWindowMs > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(maximumWriters)
+                        .expireAfterWrite(Duration.ofMillis(readYourWritesWindowMs))
+                        .build()
+                : null;
+        this.primaryCounter = routeCounter(meterRegistry, "primary");
+        this.replicaCounter = routeCounter(meterRegistry, "replica");
+        this.readYourWritesCounter = Counter.builder("datasource.routing.read_your_writes")
+                .description("因读己之写窗口而使用主库的只读事务数")
+                .register(meterRegistry);
+        if (recentWriters != null) {
+            Gauge.builder("datasource.routing.recent_writers", recentWriters, Cache::estimatedSize)
+                    .description("处于读己之写窗口内的用户数")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && recentWriters != null && recentWriters.getIfPresent(username) != null) {
+                readYourWritesCounter.increment();
+                primaryCounter.increment();
+                return Route.PRIMARY;
+            }
+            replicaCounter.increment();
+            return Route.REPLICA;
+        }
+        if (username != null && recentWriters != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+            recentWriters.put(username, Boolean.TRUE);
+        }
+        primaryCounter.increment();
+        return Route.PRIMARY;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routing.connections")
+                .description("按目标数据源统计的连接获取次数")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
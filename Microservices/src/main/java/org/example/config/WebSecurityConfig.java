@@ -1,12 +1,22 @@
 package org.example.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.example.repository.UserRepository;
+import org.example.service.CachedUserDetailsService;
+import org.example.service.TokenRevocationService;
+import org.example.service.UserStatusRegistry;
 import org.example.util.JwtUtils;
 import org.example.config.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
@@ -14,10 +24,10 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -34,17 +44,69 @@ public class WebSecurityConfig {
     @Autowired
     private JwtUtils jwtUtils;
 
-    // 用户详情服务
+    @Autowired
+    private UserStatusRegistry userStatusRegistry;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${auth.user-cache.maximum-size:10000}")
+    private long userCacheMaximumSize;
+
+    @Value("${auth.user-cache.ttl:300000}")
+    private long userCacheTtlMs;
+
+    @Value("${auth.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${auth.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${auth.hashing.retry-after:1}")
+    private long hashingRetryAfterSeconds;
+
+    @Value("${auth.hashing.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${auth.hashing.bcrypt.target-ms:80}")
+    private long bcryptTargetMs;
+
+    @Value("${auth.hashing.bcrypt.min-strength:10}")
+    private int bcryptMinStrength;
+
+    @Value("${auth.hashing.bcrypt.max-strength:14}")
+    private int bcryptMaxStrength;
+
+    @Value("${auth.metrics.username:prometheus}")
+    private String metricsUsername;
+
+    @Value("${auth.metrics.password:}")
+    private String metricsPassword;
+
+    // 用户详情服务（带本地缓存）
     @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByUsername(username)
+    public CachedUserDetailsService userDetailsService() {
+        UserDetailsService loader = username -> userRepository.loadByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + username));
+        return new CachedUserDetailsService(loader, userCacheMaximumSize, userCacheTtlMs, meterRegistry);
     }
 
-    // 密码编码器
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // 密码编码器（在有界线程池中执行BCrypt，线程数默认等于CPU核数）
+    // 未指定强度时按耗时预算在启动时校准
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : CalibratedBCryptPasswordEncoder.calibrate(bcryptTargetMs, bcryptMinStrength, bcryptMaxStrength);
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new CalibratedBCryptPasswordEncoder(strength), threads,
+                hashingQueueCapacity, hashingRetryAfterSeconds, meterRegistry);
     }
 
     // 认证提供者
@@ -65,7 +127,39 @@ public class WebSecurityConfig {
     // JWT认证过滤器
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtUtils, userDetailsService());
+        return new JwtAuthenticationFilter(jwtUtils, userDetailsService(), userStatusRegistry, tokenRevocationService,
+                meterRegistry);
+    }
+
+    // 登录/注册限流过滤器
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(objectMapper, meterRegistry);
+    }
+
+    // 监控指标端点：管理员令牌或抓取专用账号（HTTP Basic）均可访问
+    // Prometheus按固定凭据长期抓取，无法使用15分钟过期的访问令牌；未配置 auth.metrics.password 时只接受管理员令牌
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/metrics", "/actuator/metrics/**", "/actuator/prometheus")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // 直接设置状态码而不是sendError，错误页分派不会再经过令牌认证，否则403会变成401
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                .accessDeniedHandler((request, response, e) -> response.setStatus(HttpStatus.FORBIDDEN.value())))
+            .authorizeHttpRequests(authorize -> authorize
+                .anyRequest().hasAnyRole("ADMIN", MetricsScrapeAuthenticationProvider.ROLE))
+            .authenticationManager(new ProviderManager(
+                new MetricsScrapeAuthenticationProvider(metricsUsername, metricsPassword)));
+        if (StringUtils.hasText(metricsPassword)) {
+            http.httpBasic(basic -> basic
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+        }
+        http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+        return http.build();
     }
 
     // 安全过滤器链配置
@@ -75,8 +169,18 @@ public class WebSecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // 未认证（含访问令牌过期）返回401，客户端据此使用刷新令牌续期；已认证但无权限仍返回403
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .authorizeHttpRequests(authorize -> authorize
-                .requestMatchers("/auth/register", "/auth/login", "/api/auth/register", "/api/auth/login").permitAll()
+                // 流式响应（用户导出）写完后的异步分派：原请求已完成鉴权，令牌认证不会在此分派中重新建立
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // 退出登录允许访问令牌已过期的请求，以便吊销其刷新令牌
+                .requestMatchers("/auth/register", "/auth/login", "/auth/refresh", "/auth/logout", "/auth/availability",
+                        "/api/auth/register", "/api/auth/login", "/api/auth/refresh", "/api/auth/logout",
+                        "/api/auth/availability").permitAll()
+                // JWT验证公钥供下游服务匿名获取
+                .requestMatchers("/.well-known/jwks.json", "/api/.well-known/jwks.json").permitAll()
                 // 允许访问Swagger相关端点
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/users/me", "/users/**", "/api/users/me", "/api/users/**").authenticated()
@@ -85,6 +189,8 @@ public class WebSecurityConfig {
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+        // 限流在JWT认证之前执行
+        http.addFilterBefore(rateLimitFilter(), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -7,12 +7,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.dto.LoginDto;
+import org.example.dto.RefreshTokenDto;
 import org.example.dto.RegisterDto;
 import org.example.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
@@ -56,6 +59,35 @@ public class AuthController {
         return userService.registerUser(registerDto);
     }
 
+    // 用户名/邮箱可用性检查端点（注册页输入时调用）
+    @GetMapping("/availability")
+    @Operation(
+            summary = "检查用户名/邮箱是否可用",
+            description = "返回用户名或邮箱是否尚未被使用，至少提供一个参数；结果仅供提示，注册时会再次检查",
+            tags = {"认证管理"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "检查成功",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "未提供用户名或邮箱",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "请求过于频繁",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    public ResponseEntity<?> checkAvailability(@RequestParam(value = "username", required = false) String username,
+                                               @RequestParam(value = "email", required = false) String email) {
+        return userService.checkAvailability(username, email);
+    }
+
     // 用户登录端点
     @PostMapping("/login")
     @Operation(
@@ -84,4 +116,81 @@ public class AuthController {
         logger.info("收到用户登录请求: {}", loginDto.getUsername());
         return userService.loginUser(loginDto);
     }
-}
\ No newline at end of file
+
+    // 刷新令牌端点
+    @PostMapping("/refresh")
+    @Operation(
+            summary = "刷新令牌",
+            description = "使用刷新令牌换取新的访问令牌与刷新令牌，旧刷新令牌随即失效",
+            tags = {"认证管理"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "刷新成功",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "无效的请求参数",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "刷新令牌无效、已过期或已被使用",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenDto refreshTokenDto) {
+        return userService.refreshToken(refreshTokenDto);
+    }
+
+    // 退出登录端点
+    @PostMapping("/logout")
+    @Operation(
+            summary = "退出登录",
+            description = "吊销当前访问令牌与请求体中的刷新令牌（所在令牌族），令牌无效时同样返回成功",
+            tags = {"认证管理"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "已退出登录",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshTokenDto refreshTokenDto) {
+        return userService.logout(authorization, refreshTokenDto);
+    }
+
+    // 吊销指定访问令牌端点（需要管理员权限）
+    @DeleteMapping("/tokens/{jti}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "吊销令牌",
+            description = "按令牌ID（jti）吊销访问令牌，用于令牌泄露时立即使其失效",
+            tags = {"认证管理"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "令牌已吊销",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "无效的令牌ID",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "权限不足",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    public ResponseEntity<?> revokeToken(@PathVariable String jti) {
+        return userService.revokeToken(jti);
+    }
+}
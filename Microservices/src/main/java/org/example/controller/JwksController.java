@@ -0,0 +1,62 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PostConstruct;
+import org.example.util.JwtUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+// 发布JWT验证公钥（JWKS），下游服务据此按kid本地验证令牌，无需回调本服务或共享密钥
+@RestController
+@Tag(name = "密钥发布", description = "JWT验证公钥")
+public class JwksController {
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 下游缓存时间应小于"发布新密钥"到"启用新密钥签名"之间的间隔
+    @Value("${jwt.jwks.max-age:600}")
+    private long maxAgeSeconds;
+
+    // 密钥集合启动后不变，响应体与ETag只生成一次
+    private byte[] body;
+
+    private String etag;
+
+    @PostConstruct
+    public void init() throws JsonProcessingException {
+        body = objectMapper.writeValueAsBytes(jwtUtils.getJwks());
+        etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(summary = "获取JWT验证公钥", description = "RFC 7517格式的公钥集合，可按Cache-Control缓存", tags = {"密钥发布"})
+    public ResponseEntity<byte[]> getJwks(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -5,18 +5,23 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.dto.BulkUserOperationDto;
 import org.example.dto.UserUpdateDto;
 import org.example.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/users")
 @Tag(name = "用户管理", description = "用于管理用户信息的API端点")
@@ -79,12 +84,12 @@ public class UserController {
         return userService.getUserById(userId);
     }
 
-    // 获取所有用户列表
+    // 分页获取用户列表
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(
-            summary = "获取所有用户列表",
-            description = "获取系统中所有用户的列表（仅管理员权限）",
+            summary = "分页获取用户列表",
+            description = "基于游标分页获取用户列表，可按状态、角色筛选，按id、createdAt或lastLogin排序（仅管理员权限）",
             tags = {"用户管理"}
     )
     @ApiResponses({
@@ -93,6 +98,85 @@ public class UserController {
                     description = "获取成功",
                     content = @Content(mediaType = "application/json")
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "无效的分页游标或排序字段",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "未认证",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "没有管理员权限",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    public ResponseEntity<?> getAllUsers(@RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "size", required = false) Integer size,
+                                         @RequestParam(value = "status", required = false) String status,
+                                         @RequestParam(value = "role", required = false) String role,
+                                         @RequestParam(value = "sort", required = false) String sort,
+                                         @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        logger.info("获取用户列表请求，游标: {}, 状态: {}, 角色: {}, 排序: {}", cursor, status, role, sort);
+        return userService.getAllUsers(cursor, size, status, role, sort, includeTotal);
+    }
+
+    // 导出全部用户
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "导出用户数据",
+            description = "以NDJSON（默认）或CSV格式流式导出全部用户，不含密码（仅管理员权限）",
+            tags = {"用户管理"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "导出成功",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "不支持的导出格式",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "未认证",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "没有管理员权限",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        logger.info("导出用户数据请求，格式: {}", format);
+        return userService.exportUsers(format);
+    }
+
+    // 批量导入用户
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "批量导入用户",
+            description = "流式导入NDJSON或CSV格式的用户数据，每行需含username、email以及password或passwordHash（BCrypt），" +
+                    "可选fullName、phone、role、status；返回逐行的失败原因（仅管理员权限）",
+            tags = {"用户管理"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "导入完成，返回成功与失败行数及失败明细",
+                    content = @Content(mediaType = "application/json")
+            ),
             @ApiResponse(
                     responseCode = "401",
                     description = "未认证",
@@ -104,9 +188,10 @@ public class UserController {
                     content = @Content(mediaType = "application/json")
             )
     })
-    public ResponseEntity<?> getAllUsers() {
-        logger.info("获取所有用户列表请求");
-        return userService.getAllUsers();
+    public ResponseEntity<?> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         InputStream inputStream) {
+        logger.info("批量导入用户请求，格式: {}", contentType);
+        return userService.importUsers(contentType, inputStream);
     }
 
     // 更新用户信息
@@ -114,7 +199,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(
             summary = "更新用户信息",
-            description = "更新指定用户的信息（仅管理员权限）",
+            description = "更新指定用户的信息，只修改请求中提供的字段；提供version时若用户已被他人修改则返回409（仅管理员权限）",
             tags = {"用户管理"}
     )
     @ApiResponses({
@@ -142,6 +227,11 @@ public class UserController {
                     responseCode = "404",
                     description = "用户不存在",
                     content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "用户信息已被修改",
+                    content = @Content(mediaType = "application/json")
             )
     })
     public ResponseEntity<?> updateUser(@PathVariable("id") Long userId,
@@ -190,7 +280,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(
             summary = "切换用户状态",
-            description = "禁用或启用指定用户（仅管理员权限）",
+            description = "禁用或启用指定用户，可通过status参数（ACTIVE/INACTIVE）指定目标状态，不指定时切换当前状态（仅管理员权限）",
             tags = {"用户管理"}
     )
     @ApiResponses({
@@ -199,6 +289,11 @@ public class UserController {
                     description = "状态切换成功",
                     content = @Content(mediaType = "application/json")
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "不能操作自己的账号或不支持的状态",
+                    content = @Content(mediaType = "application/json")
+            ),
             @ApiResponse(
                     responseCode = "401",
                     description = "未认证",
@@ -215,8 +310,81 @@ public class UserController {
                     content = @Content(mediaType = "application/json")
             )
     })
-    public ResponseEntity<?> toggleUserStatus(@PathVariable("id") Long userId) {
-        logger.info("切换用户状态请求，用户ID: {}", userId);
-        return userService.toggleUserStatus(userId);
+    public ResponseEntity<?> toggleUserStatus(@PathVariable("id") Long userId,
+                                              @RequestParam(value = "status", required = false) String status) {
+        logger.info("切换用户状态请求，用户ID: {}, 目标状态: {}", userId, status);
+        return userService.toggleUserStatus(userId, status);
+    }
+
+    // 批量禁用/启用用户
+    @PatchMapping("/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "批量修改用户状态",
+            description = "按ID列表（ids）或筛选条件（filter）批量禁用/启用用户，status为目标状态；" +
+                    "ID列表中不能包含自己，按筛选条件时自动排除自己（仅管理员权限）",
+            tags = {"用户管理"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "修改成功，返回实际修改的用户数",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "无效的请求参数或包含自己的账号",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "未认证",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "没有管理员权限",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    public ResponseEntity<?> bulkUpdateStatus(@Valid @RequestBody BulkUserOperationDto operationDto) {
+        logger.info("批量修改用户状态请求，目标状态: {}", operationDto.getStatus());
+        return userService.bulkUpdateStatus(operationDto);
+    }
+
+    // 批量删除用户
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "批量删除用户",
+            description = "按ID列表（ids）或筛选条件（filter）批量删除用户；" +
+                    "ID列表中不能包含自己，按筛选条件时自动排除自己（仅管理员权限）",
+            tags = {"用户管理"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "删除成功，返回实际删除的用户数",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "无效的请求参数或包含自己的账号",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "未认证",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "没有管理员权限",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    public ResponseEntity<?> bulkDeleteUsers(@Valid @RequestBody BulkUserOperationDto operationDto) {
+        logger.info("批量删除用户请求");
+        return userService.bulkDeleteUsers(operationDto);
     }
 }
@@ -5,9 +5,12 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 public class df12 {
 
 
+        // 用法: df12 [密码] [强度]，强度与服务配置不同的哈希会在首次登录时自动升级
         public static void main(String[] args) {
-            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-            String encodedPassword = encoder.encode("123456");
+            String rawPassword = args.length > 0 ? args[0] : "123456";
+            int strength = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            String encodedPassword = encoder.encode(rawPassword);
             System.out.println(encodedPassword);
         }
     }
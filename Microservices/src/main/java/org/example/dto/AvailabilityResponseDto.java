@@ -0,0 +1,14 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// 用户名/邮箱可用性，未查询的字段不输出
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponseDto {
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+}
@@ -0,0 +1,21 @@
+package org.example.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkUserOperationDto {
+    // 目标用户ID列表，与filter二选一
+    @Size(max = 10000, message = "一次最多操作10000个用户")
+    private List<Long> ids;
+
+    // 按条件选择目标用户，与ids二选一
+    @Valid
+    private UserFilterDto filter;
+
+    // 目标状态（ACTIVE/INACTIVE），仅批量修改状态时使用
+    private String status;
+}
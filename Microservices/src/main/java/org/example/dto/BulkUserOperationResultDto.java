@@ -0,0 +1,12 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkUserOperationResultDto {
+    private String message;
+    // 实际被修改或删除的用户数
+    private long affected;
+}
@@ -13,5 +13,8 @@ public class JwtResponseDto {
     private String accessToken;
     private String tokenType = "Bearer";
     private long expiresIn;
+    // 刷新令牌（只能使用一次，刷新后返回新的刷新令牌）
+    private String refreshToken;
+    private long refreshExpiresIn;
     private UserResponseDto user;
 }
\ No newline at end of file
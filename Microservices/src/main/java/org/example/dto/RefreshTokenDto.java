@@ -0,0 +1,10 @@
+package org.example.dto;
+
+import lombok.Data;
+import jakarta.validation.constraints.NotBlank;
+
+@Data
+public class RefreshTokenDto {
+    @NotBlank(message = "刷新令牌不能为空")
+    private String refreshToken;
+}
@@ -0,0 +1,11 @@
+package org.example.dto;
+
+import lombok.Data;
+
+@Data
+public class UserFilterDto {
+    // 按状态筛选，如ACTIVE、INACTIVE
+    private String status;
+    // 按角色筛选，如USER、ADMIN
+    private String role;
+}
@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserImportFailureDto {
+    // 行号（CSV表头为第1行）
+    private long line;
+    private String username;
+    private String message;
+}
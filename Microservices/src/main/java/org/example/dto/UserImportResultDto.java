@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class UserImportResultDto {
+    // 读取到的数据行数
+    private long total;
+    private long imported;
+    private long failed;
+    // 失败行明细，超过上限的部分只计入failed
+    private List<UserImportFailureDto> failures;
+}
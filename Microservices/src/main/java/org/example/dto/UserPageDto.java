@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class UserPageDto {
+    private List<UserResponseDto> users;
+    // 下一页游标，没有更多数据时为null
+    private String nextCursor;
+    // 满足条件的总数，仅在请求时返回
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+}
@@ -17,4 +17,6 @@ public class UserResponseDto {
     private LocalDateTime createdAt;
     private LocalDateTime lastLogin;
     private String avatarUrl;
+    // 乐观锁版本号，更新用户信息时回传以检测并发修改
+    private Long version;
 }
\ No newline at end of file
@@ -17,4 +17,7 @@ public class UserUpdateDto {
     private String role;
 
     private String status;
+
+    // 读取用户信息时得到的版本号，提供时若用户已被他人修改则拒绝更新
+    private Long version;
 }
@@ -5,7 +5,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -21,12 +26,26 @@ import java.util.Collections;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
-public class User implements UserDetails {
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_status", columnList = "status"),
+        @Index(name = "idx_users_created_at", columnList = "created_at"),
+        @Index(name = "idx_users_last_login", columnList = "last_login")
+})
+// 二级缓存：实体按ID缓存，用户名到ID的解析按自然ID缓存；经实体的修改由Hibernate使缓存失效，
+// UserRepository中直接执行的SQL更新/删除由调用方按ID使对应条目失效
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
+public class User implements UserDetails, UserProfile {
+    public static final String CACHE_REGION = "users";
+
+    public static final String NATURAL_ID_CACHE_REGION = "usersByUsername";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // 用户名是不可变的自然键，按用户名加载时可走自然ID缓存
+    @NaturalId
     @Column(nullable = false, unique = true, length = 50)
     private String username;
 
@@ -61,6 +80,12 @@ public class User implements UserDetails {
     @Column(name = "avatar_url")
     private String avatarUrl;
 
+    // 乐观锁版本号，管理员每次修改用户信息时递增
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Spring Security相关方法
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
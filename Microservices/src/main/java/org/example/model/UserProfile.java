@@ -0,0 +1,28 @@
+package org.example.model;
+
+import java.time.LocalDateTime;
+
+// 对外展示的用户字段（不含密码）：用户实体与只读投影UserView共同实现，转换为响应DTO时只需一处映射
+public interface UserProfile {
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getFullName();
+
+    String getPhone();
+
+    String getRole();
+
+    String getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getLastLogin();
+
+    String getAvatarUrl();
+
+    Long getVersion();
+}
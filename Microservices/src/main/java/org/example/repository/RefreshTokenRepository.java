@@ -0,0 +1,50 @@
+package org.example.repository;
+
+import org.example.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // 按令牌摘要查找（唯一索引），包含已使用的令牌以便识别重放
+    @Query("SELECT t.id AS id, t.familyId AS familyId, t.userId AS userId, u.username AS username, " +
+            "t.expiresAt AS expiresAt FROM RefreshToken t JOIN User u ON u.id = t.userId " +
+            "WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshTokenView> findViewByTokenHash(@Param("tokenHash") byte[] tokenHash);
+
+    // 令牌族是否仍存在（未退出登录、未被吊销）
+    boolean existsByFamilyId(Long familyId);
+
+    // 将令牌标记为已使用，返回0表示令牌已被使用或已被吊销（并发刷新时只有一个请求成功）
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken t SET t.used = true WHERE t.id = :id AND t.used = false")
+    int markUsed(@Param("id") Long id);
+
+    // 吊销整个令牌族
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") Long familyId);
+
+    // 删除用户时一并删除其刷新令牌
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.userId IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // 清理过期令牌
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
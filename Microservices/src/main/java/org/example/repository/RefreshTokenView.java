@@ -0,0 +1,16 @@
+package org.example.repository;
+
+import java.time.LocalDateTime;
+
+// 刷新令牌查询投影，连同所属用户的用户名一次查出
+public interface RefreshTokenView {
+    Long getId();
+
+    Long getFamilyId();
+
+    Long getUserId();
+
+    String getUsername();
+
+    LocalDateTime getExpiresAt();
+}
@@ -0,0 +1,31 @@
+package org.example.repository;
+
+import jakarta.persistence.QueryHint;
+import org.example.model.RevokedToken;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    // 按ID增量读取尚未过期的吊销记录（启动时全量加载与定时同步共用）
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT t FROM RevokedToken t WHERE t.id > :afterId AND t.expiresAt > :now ORDER BY t.id")
+    List<RevokedToken> findActiveAfter(@Param("afterId") Long afterId, @Param("now") LocalDateTime now, Limit limit);
+
+    // 清理已过期的吊销记录
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,10 @@
+package org.example.repository;
+
+// 用户唯一键投影：只包含ID、用户名与邮箱（可用性过滤器构建用）
+public interface UserKeyView {
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+}
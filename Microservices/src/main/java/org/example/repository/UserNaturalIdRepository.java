@@ -0,0 +1,19 @@
+package org.example.repository;
+
+import org.example.model.User;
+
+import java.util.Collection;
+import java.util.Optional;
+
+// 按自然ID（用户名）加载用户，由UserRepository继承
+public interface UserNaturalIdRepository {
+
+    // 先查二级缓存中的用户名解析与实体，未命中时按用户名查询数据库并放入缓存
+    Optional<User> loadByUsername(String username);
+
+    // 使二级缓存中这些用户的实体失效（直接执行的SQL更新/删除之后调用，不影响其他用户的缓存条目）
+    void evictCachedUsers(Collection<Long> ids);
+
+    // 使二级缓存中这些用户名到ID的解析失效（用户被直接执行的SQL删除之后调用）
+    void evictCachedUsernames(Collection<String> usernames);
+}
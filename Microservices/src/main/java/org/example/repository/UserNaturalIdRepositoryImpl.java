@@ -0,0 +1,55 @@
+package org.example.repository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.model.User;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // 认证路径（登录与JWT过滤器/用户缓存失效后的重新加载）不使用只读事务：启用读写分离时始终读主库，
+    // 刚被修改、禁用或删除的用户不会因副本延迟而按旧数据通过认证，二级缓存中的用户实体也只来自主库；
+    // 不开启实际事务，调用方也不会因此被记入读己之写窗口
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<User> loadByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    @Override
+    public void evictCachedUsers(Collection<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        for (Long id : ids) {
+            cache.evict(User.class, id);
+        }
+    }
+
+    // 用户名解析的缓存键由Hibernate按会话生成（包含租户等信息），需在会话内计算
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void evictCachedUsernames(Collection<String> usernames) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getFactory().getRuntimeMetamodels().getMappingMetamodel()
+                .getEntityDescriptor(User.class);
+        NaturalIdDataAccess cacheAccess = persister.getNaturalIdCacheAccessStrategy();
+        // 二级缓存关闭时没有用户名解析缓存
+        if (cacheAccess == null) {
+            return;
+        }
+        for (String username : usernames) {
+            cacheAccess.evict(cacheAccess.generateCacheKey(username, persister, session));
+        }
+    }
+}
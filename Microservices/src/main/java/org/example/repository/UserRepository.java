@@ -1,15 +1,36 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.model.User;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
+
+    // UserView投影的查询列，仅选择响应中需要的字段（不含密码），结果不作为托管实体加载
+    String VIEW_SELECT = "SELECT new org.example.repository.UserViewRow(u.id, u.username, u.email, u.fullName, " +
+            "u.phone, u.role, u.status, u.createdAt, u.lastLogin, u.avatarUrl, u.version) ";
+
+    // 下列更新/删除语句以原生SQL执行，并声明这个与表名不同的同步查询空间：
+    // JPQL批量语句或未声明查询空间的原生SQL执行后，Hibernate会使整个users与usersByUsername缓存区域失效，
+    // 这里改由调用方按ID使受影响用户的缓存条目失效（evictCachedUsers / evictCachedUsernames）
+    // 执行前Hibernate也不会自动刷新会话中未写出的User修改，调用方不应在同一会话中先修改实体再调用这些语句
+    String NATIVE_QUERY_SPACE = "users_native";
     
-    // 根据用户名查找用户
+    // 根据用户名查找用户（JPQL查询，不经过二级缓存；认证路径使用 loadByUsername）
     Optional<User> findByUsername(String username);
     
     // 根据邮箱查找用户
@@ -20,4 +41,103 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     // 检查邮箱是否存在
     boolean existsByEmail(String email);
+
+    // 按ID查询用户投影
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(VIEW_SELECT + "FROM User u WHERE u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    // 分页查询（按ID升序），afterId为上一页最后一行的ID
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(VIEW_SELECT + "FROM User u WHERE (:status IS NULL OR u.status = :status) AND (:role IS NULL OR u.role = :role) " +
+            "AND u.id > :afterId ORDER BY u.id ASC")
+    List<UserView> findPageOrderById(@Param("status") String status, @Param("role") String role,
+                                     @Param("afterId") Long afterId, Limit limit);
+
+    // 分页查询（按创建时间降序），createdAt/beforeId为上一页最后一行的值
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(VIEW_SELECT + "FROM User u WHERE (:status IS NULL OR u.status = :status) AND (:role IS NULL OR u.role = :role) " +
+            "AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :beforeId)) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserView> findPageOrderByCreatedAt(@Param("status") String status, @Param("role") String role,
+                                            @Param("createdAt") LocalDateTime createdAt, @Param("beforeId") Long beforeId,
+                                            Limit limit);
+
+    // 分页查询（按最后登录时间降序，从未登录的用户排在最后），lastLogin为null表示游标已进入未登录用户区间
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(VIEW_SELECT + "FROM User u WHERE (:status IS NULL OR u.status = :status) AND (:role IS NULL OR u.role = :role) " +
+            "AND (u.lastLogin < :lastLogin OR (u.lastLogin = :lastLogin AND u.id < :beforeId) " +
+            "OR (u.lastLogin IS NULL AND (:lastLogin IS NOT NULL OR u.id < :beforeId))) " +
+            "ORDER BY u.lastLogin DESC, u.id DESC")
+    List<UserView> findPageOrderByLastLogin(@Param("status") String status, @Param("role") String role,
+                                            @Param("lastLogin") LocalDateTime lastLogin, @Param("beforeId") Long beforeId,
+                                            Limit limit);
+
+    // 统计满足筛选条件的用户数
+    @Query("SELECT COUNT(u) FROM User u WHERE (:status IS NULL OR u.status = :status) AND (:role IS NULL OR u.role = :role)")
+    long countByFilter(@Param("status") String status, @Param("role") String role);
+
+    // 按字段更新用户信息，参数为null的字段保持原值；version不为null时仅在版本一致时更新
+    // 邮箱唯一性由唯一索引保证，冲突时抛出DuplicateKeyException
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NATIVE_QUERY_SPACE))
+    @Query(value = "UPDATE users SET email = COALESCE(:email, email), full_name = COALESCE(:fullName, full_name), " +
+            "phone = COALESCE(:phone, phone), role = COALESCE(:role, role), status = COALESCE(:status, status), " +
+            "updated_at = :now, version = version + 1 " +
+            "WHERE id = :id AND (:version IS NULL OR version = :version)", nativeQuery = true)
+    int updateProfile(@Param("id") Long id, @Param("version") Long version, @Param("email") String email,
+                      @Param("fullName") String fullName, @Param("phone") String phone, @Param("role") String role,
+                      @Param("status") String status, @Param("now") LocalDateTime now);
+
+    // 将用户状态改为toStatus，状态已是toStatus或用户不存在时返回0
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NATIVE_QUERY_SPACE))
+    @Query(value = "UPDATE users SET status = :toStatus, updated_at = :now, version = version + 1 " +
+            "WHERE id = :id AND status <> :toStatus", nativeQuery = true)
+    int updateStatus(@Param("id") Long id, @Param("toStatus") String toStatus, @Param("now") LocalDateTime now);
+
+    // 仅当当前状态为fromStatus时将其改为toStatus，返回更新行数
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NATIVE_QUERY_SPACE))
+    @Query(value = "UPDATE users SET status = :toStatus, updated_at = :now, version = version + 1 " +
+            "WHERE id = :id AND status = :fromStatus", nativeQuery = true)
+    int updateStatusFrom(@Param("id") Long id, @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus,
+                         @Param("now") LocalDateTime now);
+
+    // 按筛选条件分批查询用户ID（批量操作用），excludeId对应的用户（当前管理员）不会被选中
+    @Query("SELECT u.id FROM User u WHERE (:status IS NULL OR u.status = :status) AND (:role IS NULL OR u.role = :role) " +
+            "AND u.id > :afterId AND u.id <> :excludeId ORDER BY u.id ASC")
+    List<Long> findIdsByFilter(@Param("status") String status, @Param("role") String role,
+                               @Param("afterId") Long afterId, @Param("excludeId") Long excludeId, Limit limit);
+
+    // 批量修改状态，状态已是toStatus的用户不计入更新行数
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NATIVE_QUERY_SPACE))
+    @Query(value = "UPDATE users SET status = :toStatus, updated_at = :now, version = version + 1 " +
+            "WHERE id IN :ids AND status <> :toStatus", nativeQuery = true)
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("toStatus") String toStatus,
+                          @Param("now") LocalDateTime now);
+
+    // 查询这些用户的用户名（批量删除前取出，用于使用户名解析的缓存失效）
+    @Query("SELECT u.username FROM User u WHERE u.id IN :ids")
+    List<String> findUsernamesByIds(@Param("ids") Collection<Long> ids);
+
+    // 批量删除，返回删除行数
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NATIVE_QUERY_SPACE))
+    @Query(value = "DELETE FROM users WHERE id IN :ids", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // 替换密码哈希（仅当库中仍为旧哈希时），不改变更新时间
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = NATIVE_QUERY_SPACE))
+    @Query(value = "UPDATE users SET password = :newHash, updated_at = updated_at WHERE id = :id AND password = :oldHash",
+            nativeQuery = true)
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
\ No newline at end of file
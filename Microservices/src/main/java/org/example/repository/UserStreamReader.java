@@ -0,0 +1,136 @@
+package org.example.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+// 流式读取用户表（导出、可用性过滤器构建与同步）：使用单独的小连接池，只有该连接池开启MySQL服务端游标（useCursorFetch）
+// useCursorFetch会让驱动对每条语句使用服务端预处理，其余查询不受影响，不为每条语句多一次prepare/close往返
+// 启用读写分离时连接只读副本；连接池不注册为DataSource Bean，不影响自动配置的主数据源与JdbcTemplate
+@Component
+public class UserStreamReader {
+
+    private static final String USER_SELECT = "SELECT id, username, email, full_name, phone, role, status, "
+            + "created_at, last_login, avatar_url, version FROM users ";
+
+    private static final RowMapper<UserView> USER_ROW_MAPPER = (rs, rowNum) -> new UserViewRow(
+            rs.getLong("id"),
+            rs.getString("username"),
+            rs.getString("email"),
+            rs.getString("full_name"),
+            rs.getString("phone"),
+            rs.getString("role"),
+            rs.getString("status"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("last_login", LocalDateTime.class),
+            rs.getString("avatar_url"),
+            rs.getLong("version"));
+
+    private static final RowMapper<UserKeyView> KEY_ROW_MAPPER = (rs, rowNum) -> new KeyRow(
+            rs.getLong("id"),
+            rs.getString("username"),
+            rs.getString("email"));
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${datasource.streaming.pool-size:2}")
+    private int poolSize;
+
+    @Value("${datasource.streaming.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${datasource.routing.enabled:false}")
+    private boolean routingEnabled;
+
+    @Value("${spring.datasource.url}")
+    private String primaryUrl;
+
+    @Value("${spring.datasource.username:}")
+    private String primaryUsername;
+
+    @Value("${spring.datasource.password:}")
+    private String primaryPassword;
+
+    @Value("${spring.datasource.driver-class-name:}")
+    private String primaryDriverClassName;
+
+    @Value("${datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replica.driver-class-name:${spring.datasource.driver-class-name:}}")
+    private String replicaDriverClassName;
+
+    private HikariDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        String url = routingEnabled ? replicaUrl : primaryUrl;
+        String driverClassName = routingEnabled ? replicaDriverClassName : primaryDriverClassName;
+        dataSource = new HikariDataSource();
+        dataSource.setPoolName("HikariPool-stream");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(routingEnabled ? replicaUsername : primaryUsername);
+        dataSource.setPassword(routingEnabled ? replicaPassword : primaryPassword);
+        if (StringUtils.hasText(driverClassName)) {
+            dataSource.setDriverClassName(driverClassName);
+        }
+        dataSource.setMaximumPoolSize(poolSize);
+        // 导出与同步不频繁，空闲时不保留连接
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        if (url.startsWith("jdbc:mysql:")) {
+            dataSource.addDataSourceProperty("useCursorFetch", "true");
+        }
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // 开启服务端游标时每次从服务端读取的行数
+        jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+
+    // 按ID顺序流式读取全部用户（导出用），使用完毕须关闭以归还连接
+    public Stream<UserView> streamAll() {
+        return jdbcTemplate.queryForStream(USER_SELECT + "ORDER BY id", USER_ROW_MAPPER);
+    }
+
+    // 按ID顺序流式读取ID大于afterId的用户名与邮箱，使用完毕须关闭以归还连接
+    public Stream<UserKeyView> streamKeysAfter(long afterId) {
+        return jdbcTemplate.queryForStream("SELECT id, username, email FROM users WHERE id > ? ORDER BY id",
+                KEY_ROW_MAPPER, afterId);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class KeyRow implements UserKeyView {
+        private final Long id;
+        private final String username;
+        private final String email;
+    }
+}
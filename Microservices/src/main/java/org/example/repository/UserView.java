@@ -0,0 +1,8 @@
+package org.example.repository;
+
+import org.example.model.UserProfile;
+
+// 用户只读投影：仅包含对外展示的列（不含密码），查询结果不作为实体加载
+// 字段定义在UserProfile中；查询结果为UserViewRow，实体不实现该接口，以免误把实体当作投影返回
+public interface UserView extends UserProfile {
+}
@@ -0,0 +1,24 @@
+package org.example.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// UserView的实现：投影查询通过JPQL构造表达式直接创建，流式读取由JDBC结果映射创建
+// Spring Data对接口投影的查询每次执行都要重新解析选择列并为每行创建代理，构造表达式两者都不需要
+@Getter
+@AllArgsConstructor
+public class UserViewRow implements UserView {
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String fullName;
+    private final String phone;
+    private final String role;
+    private final String status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime lastLogin;
+    private final String avatarUrl;
+    private final Long version;
+}
@@ -0,0 +1,181 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.model.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 带容量上限与过期时间的用户详情缓存，按用户名缓存，用户被修改时显式失效
+// 另维护用户ID到用户名的索引（用户名不可修改），只知道ID的定向更新按索引失效，不遍历缓存
+// 命中、未命中与淘汰次数通过 cache.gets / cache.evictions 指标（cache=userDetails）导出
+public class CachedUserDetailsService implements UserDetailsService {
+
+    public static final String CACHE_NAME = "userDetails";
+
+    private final UserDetailsService delegate;
+
+    // 缓存加载中的结果（future），同一用户的并发请求只查询一次数据库
+    private final AsyncCache<String, UserDetails> cache;
+
+    // 已缓存用户的ID到用户名索引：条目与缓存中已加载完成的用户同时加入、同时移除（均在该用户名的compute内）
+    private final ConcurrentHashMap<Long, String> usernamesById = new ConcurrentHashMap<>();
+
+    // 失效次数：查询期间发生过失效时，查询结果可能早于该次修改，不放入缓存
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CachedUserDetailsService(UserDetailsService delegate, long maximumSize, long ttlMs,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                // 容量淘汰与过期在移除条目的同时清除索引
+                .evictionListener((String username, UserDetails userDetails, RemovalCause cause) ->
+                        unindex(username, userDetails))
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        CompletableFuture<UserDetails> future = cache.getIfPresent(username);
+        if (future == null) {
+            // 先放入未完成的future再在调用线程上查询数据库，不在Caffeine的compute（synchronized）内执行查询，
+            // 避免虚拟线程等待数据库时固定载体线程
+            CompletableFuture<UserDetails> loading = new CompletableFuture<>();
+            future = cache.asMap().putIfAbsent(username, loading);
+            if (future == null) {
+                future = loading;
+                try {
+                    load(username, loading);
+                } catch (Throwable e) {
+                    // 用户不存在时委托方抛出异常；任何失败（包括Error）都必须完成future并移出缓存，
+                    // 否则等待同一用户的请求会一直阻塞
+                    loading.completeExceptionally(e);
+                    cache.asMap().remove(username, loading);
+                }
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    // 当前的失效次数，在读取数据库之前获取，读取结果交给put时一并传入
+    public long generation() {
+        return invalidations.get();
+    }
+
+    // 放入刚从数据库读取的用户（如登录时已查询过的用户），generation为读取之前的失效次数
+    // 与load相同：读取之后发生过失效时结果可能早于该次修改（如用户刚被禁用），不放入缓存并移除旧条目
+    public void put(UserDetails userDetails, long generation) {
+        CompletableFuture<UserDetails> loaded = CompletableFuture.completedFuture(userDetails);
+        cache.asMap().compute(userDetails.getUsername(), (username, previous) -> {
+            unindex(username, previous);
+            index(username, userDetails);
+            if (invalidations.get() != generation) {
+                unindex(username, userDetails);
+                return null;
+            }
+            return loaded;
+        });
+    }
+
+    // 使指定用户的缓存失效，包括正在加载的结果
+    public void evict(String username) {
+        invalidations.incrementAndGet();
+        remove(username);
+    }
+
+    // 按用户ID使缓存失效（只知道ID的定向更新使用），按索引查找用户名
+    public void evictById(Long userId) {
+        invalidations.incrementAndGet();
+        removeById(userId);
+    }
+
+    // 按用户ID批量使缓存失效
+    public void evictByIds(Set<Long> userIds) {
+        invalidations.incrementAndGet();
+        userIds.forEach(this::removeById);
+    }
+
+    // 清空缓存
+    public void evictAll() {
+        invalidations.incrementAndGet();
+        cache.asMap().keySet().forEach(this::remove);
+    }
+
+    // 在调用线程上查询数据库并完成future
+    // 先加入索引再检查失效次数：失效方先增加次数再查索引，两者之一必然看到对方，加载结果不会在失效之后留在缓存中
+    private void load(String username, CompletableFuture<UserDetails> loading) {
+        long generation = invalidations.get();
+        UserDetails userDetails = delegate.loadUserByUsername(username);
+        cache.asMap().computeIfPresent(username, (key, current) -> {
+            if (current != loading) {
+                return current;
+            }
+            index(key, userDetails);
+            if (invalidations.get() != generation) {
+                // 查询期间有用户被修改：结果仍返回给本次等待的请求，但不留在缓存中
+                unindex(key, userDetails);
+                return null;
+            }
+            return current;
+        });
+        loading.complete(userDetails);
+    }
+
+    private void removeById(Long userId) {
+        String username = usernamesById.get(userId);
+        if (username != null) {
+            remove(username);
+        }
+    }
+
+    private void remove(String username) {
+        cache.asMap().computeIfPresent(username, (key, current) -> {
+            unindex(key, current);
+            return null;
+        });
+    }
+
+    private void index(String username, UserDetails userDetails) {
+        if (userDetails instanceof User user && user.getId() != null) {
+            usernamesById.put(user.getId(), username);
+        }
+    }
+
+    private void unindex(String username, CompletableFuture<UserDetails> future) {
+        if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+            unindex(username, future.join());
+        }
+    }
+
+    private void unindex(String username, UserDetails userDetails) {
+        if (userDetails instanceof User user && user.getId() != null) {
+            usernamesById.remove(user.getId(), username);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 最后登录时间的延迟批量写入
+// 登录时只在内存中记录（同一用户只保留最新时间），定时合并为批量UPDATE，应用关闭前写出剩余数据
+@Service
+public class LastLoginWriter {
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginWriter.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.last-login.batch-size:500}")
+    private int batchSize;
+
+    private final ConcurrentHashMap<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("auth.last_login.pending", pending, Map::size)
+                .description("等待写入的最后登录时间数量")
+                .register(meterRegistry);
+    }
+
+    // 记录用户最后登录时间
+    public void record(Long userId, LocalDateTime lastLogin) {
+        pending.merge(userId, lastLogin, (current, latest) -> latest.isAfter(current) ? latest : current);
+    }
+
+    // 定时写出待更新的最后登录时间
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<Map.Entry<Long, LocalDateTime>> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+            Iterator<Long> ids = pending.keySet().iterator();
+            while (ids.hasNext()) {
+                Long userId = ids.next();
+                LocalDateTime lastLogin = pending.remove(userId);
+                if (lastLogin == null) {
+                    continue;
+                }
+                batch.add(Map.entry(userId, lastLogin));
+                if (batch.size() >= batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // 以一条UPDATE写出一批用户的最后登录时间
+    // 显式保持updated_at不变，避免 ON UPDATE CURRENT_TIMESTAMP 将其刷新
+    private void write(List<Map.Entry<Long, LocalDateTime>> batch) {
+        StringBuilder sql = new StringBuilder("UPDATE users SET last_login = CASE id");
+        List<Object> args = new ArrayList<>(batch.size() * 3);
+        for (Map.Entry<Long, LocalDateTime> entry : batch) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(entry.getKey());
+            args.add(Timestamp.valueOf(entry.getValue()));
+        }
+        sql.append(" ELSE last_login END, updated_at = updated_at WHERE id IN (");
+        for (int i = 0; i < batch.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(batch.get(i).getKey());
+        }
+        sql.append(')');
+
+        try {
+            // 不使二级缓存中的用户实体失效：每次登录都会写入最后登录时间，逐个失效会让认证路径的缓存几乎不再命中
+            // 缓存实体中的最后登录时间因此最多滞后 auth.entity-cache.ttl，按ID或分页查询用户走投影查询，不受影响
+            jdbcTemplate.update(sql.toString(), args.toArray());
+            logger.debug("批量更新最后登录时间: {} 条", batch.size());
+        } catch (Exception e) {
+            // 写入失败时放回队列，保留较新的时间等待下次重试
+            logger.error("批量更新最后登录时间失败: {}", e.getMessage());
+            for (Map.Entry<Long, LocalDateTime> entry : batch) {
+                record(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import org.example.model.User;
+import org.example.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+// 登录认证：按用户名只加载一次用户（经二级缓存的自然ID查找），并用加载到的记录校验密码
+// 用户不存在时同样执行一次密码比对，使其与密码错误的耗时和错误信息一致
+@Component
+public class LoginAuthenticator {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordUpgrader passwordUpgrader;
+
+    // 用户不存在时用于比对的哈希，与真实密码哈希的计算代价相同
+    private String dummyPasswordHash;
+
+    @PostConstruct
+    public void init() {
+        dummyPasswordHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    // 校验用户名与密码，成功返回用户实体
+    public User authenticate(String username, String rawPassword) {
+        Optional<User> userOptional = userRepository.loadByUsername(username);
+        if (!userOptional.isPresent()) {
+            passwordEncoder.matches(rawPassword, dummyPasswordHash);
+            throw new BadCredentialsException("用户名或密码错误");
+        }
+
+        User user = userOptional.get();
+        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+            throw new BadCredentialsException("用户名或密码错误");
+        }
+
+        // 密码正确后才检查账号状态，避免向未知调用方暴露账号是否被禁用
+        if (!user.isEnabled()) {
+            throw new DisabledException("账号已被禁用");
+        }
+
+        // 已存哈希强度与当前配置不同时异步升级
+        passwordUpgrader.upgradeIfNeeded(user, rawPassword);
+        return user;
+    }
+}
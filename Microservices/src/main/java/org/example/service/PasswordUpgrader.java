@@ -0,0 +1,78 @@
+package org.example.service;
+
+import org.example.config.BoundedPasswordEncoder;
+import org.example.model.User;
+import org.example.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 登录成功后，若已存密码哈希的强度低于当前配置，则异步重新哈希并写回
+// 种子数据（init_db.sql）与 df12 生成的哈希同样在首次成功登录时升级
+// 哈希线程只计算新哈希并放入待写入队列，数据库写入由定时任务执行，不占用哈希线程
+@Component
+public class PasswordUpgrader {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordUpgrader.class);
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // 已计算、等待写入的新哈希（按用户ID）
+    private final ConcurrentHashMap<Long, Upgrade> pending = new ConcurrentHashMap<>();
+
+    // 按需异步升级密码哈希，哈希队列已满时跳过，等待下次登录
+    public void upgradeIfNeeded(User user, String rawPassword) {
+        String oldHash = user.getPassword();
+        Long userId = user.getId();
+        if (!passwordEncoder.upgradeEncoding(oldHash) || pending.containsKey(userId)) {
+            return;
+        }
+
+        passwordEncoder.encodeAsync(rawPassword).whenComplete((newHash, error) -> {
+            if (error != null) {
+                logger.debug("跳过密码哈希升级: {}", error.getMessage());
+                return;
+            }
+            pending.put(userId, new Upgrade(oldHash, newHash));
+        });
+    }
+
+    // 定时写出已计算的新哈希，仅当已存哈希仍是计算时的旧哈希时才替换
+    @Scheduled(fixedDelayString = "${auth.hashing.upgrade-flush-interval:5000}")
+    public void flush() {
+        Iterator<Map.Entry<Long, Upgrade>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Upgrade> entry = iterator.next();
+            iterator.remove();
+            Upgrade upgrade = entry.getValue();
+            try {
+                if (userRepository.updatePasswordHash(entry.getKey(), upgrade.oldHash(), upgrade.newHash()) > 0) {
+                    userRepository.evictCachedUsers(List.of(entry.getKey()));
+                    logger.info("用户密码哈希已升级: {}", entry.getKey());
+                }
+            } catch (Exception e) {
+                // 不重试，下次登录时重新计算
+                logger.error("升级密码哈希失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private record Upgrade(String oldHash, String newHash) {
+    }
+}
@@ -0,0 +1,238 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.example.model.RefreshToken;
+import org.example.model.User;
+import org.example.repository.RefreshTokenRepository;
+import org.example.repository.RefreshTokenView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HexFormat;
+
+// 刷新令牌的签发与轮换：令牌为随机字符串，数据库只保存其SHA-256摘要（唯一索引）
+// 每个令牌只能使用一次，刷新时作废旧令牌并签发同一令牌族中的新令牌；已使用的令牌再次出现时吊销整个令牌族
+// 例外：令牌刚被使用后的短暂宽限期内（如同一用户的多个请求或标签页同时刷新），返回已为其签发的新令牌
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    public static final String CACHE_NAME = "refreshTokens";
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpirationMs;
+
+    @Value("${auth.refresh-token.cache.maximum-size:100000}")
+    private long cacheMaximumSize;
+
+    @Value("${auth.refresh-token.reuse-grace:10000}")
+    private long reuseGraceMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    // 前置缓存：签发时放入，刷新时命中可省去一次按摘要的查询
+    // 只缓存令牌的不变属性，令牌是否已使用始终以数据库中的条件UPDATE为准
+    private Cache<String, CachedToken> cache;
+
+    // 宽限期内刚使用过的令牌（摘要）到其轮换结果，只在本实例内有效；reuse-grace为0时不启用
+    private Cache<String, Rotation> recentRotations;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(refreshExpirationMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        if (reuseGraceMs > 0) {
+            recentRotations = Caffeine.newBuilder()
+                    .maximumSize(cacheMaximumSize)
+                    .expireAfterWrite(Duration.ofMillis(reuseGraceMs))
+                    .build();
+        }
+    }
+
+    // 登录时签发新令牌族中的第一个令牌
+    public String issue(User user) {
+        return issue(RANDOM.nextLong() & Long.MAX_VALUE, user.getId(), user.getUsername());
+    }
+
+    // 刷新：作废旧令牌并签发同族新令牌，令牌无效、过期或已被使用时抛出认证异常
+    public Rotation rotate(String token) {
+        byte[] tokenHash = hash(token);
+        String key = HexFormat.of().formatHex(tokenHash);
+        Rotation recent = recentRotation(key);
+        if (recent != null) {
+            return recent;
+        }
+
+        CachedToken used = take(tokenHash);
+        if (used == null) {
+            throw new BadCredentialsException("刷新令牌无效");
+        }
+        if (used.expiresAt().isBefore(LocalDateTime.now())) {
+            throw new CredentialsExpiredException("刷新令牌已过期，请重新登录");
+        }
+
+        Rotation rotation;
+        try {
+            rotation = transactionTemplate.execute(status -> {
+                if (refreshTokenRepository.markUsed(used.id()) != 1) {
+                    return null;
+                }
+                Rotation issued = new Rotation(issue(used.familyId(), used.userId(), used.username()),
+                        used.familyId(), used.username());
+                // 提交前记录：并发使用同一令牌的请求在markUsed返回0时（本事务已提交）一定能看到
+                if (recentRotations != null) {
+                    recentRotations.put(key, issued);
+                }
+                return issued;
+            });
+        } catch (RuntimeException e) {
+            if (recentRotations != null) {
+                recentRotations.invalidate(key);
+            }
+            throw e;
+        }
+        if (rotation == null) {
+            recent = recentRotation(key);
+            if (recent != null) {
+                return recent;
+            }
+            // 已使用的令牌在宽限期外再次出现，说明令牌可能已泄露：吊销整个令牌族，合法持有者也需重新登录
+            int revoked = refreshTokenRepository.deleteByFamilyId(used.familyId());
+            logger.warn("检测到刷新令牌重复使用，已吊销用户 {} 的令牌族（{} 个令牌）", used.username(), revoked);
+            throw new BadCredentialsException("刷新令牌已失效，请重新登录");
+        }
+        return rotation;
+    }
+
+    // 退出登录：吊销刷新令牌所在的令牌族，令牌无效时忽略
+    public void revoke(String token) {
+        CachedToken current = take(hash(token));
+        if (current != null) {
+            refreshTokenRepository.deleteByFamilyId(current.familyId());
+        }
+    }
+
+    // 吊销令牌族（如刷新时发现账号已被禁用）
+    public void revokeFamily(Long familyId) {
+        refreshTokenRepository.deleteByFamilyId(familyId);
+    }
+
+    // 删除用户时一并删除其刷新令牌，缓存中残留的条目在刷新时因条件UPDATE失败而被拒绝
+    public void revokeUsers(Collection<Long> userIds) {
+        refreshTokenRepository.deleteByUserIds(userIds);
+    }
+
+    // 定时清理过期令牌（已使用的令牌保留到过期，用于识别重复使用）
+    @Scheduled(fixedDelayString = "${auth.refresh-token.cleanup-interval:3600000}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.debug("清理过期刷新令牌: {} 个", deleted);
+        }
+    }
+
+    public long getExpirationTime() {
+        return refreshExpirationMs;
+    }
+
+    private String issue(Long familyId, Long userId, String username) {
+        byte[] secret = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(secret);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        byte[] tokenHash = hash(token);
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs));
+
+        RefreshToken saved = refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(tokenHash)
+                .familyId(familyId)
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .used(false)
+                .build());
+        cache.put(HexFormat.of().formatHex(tokenHash), new CachedToken(saved.getId(), familyId, userId, username, expiresAt));
+        return token;
+    }
+
+    // 宽限期内刚使用过的令牌：令牌族仍存在时（未退出登录、未被吊销，含其他实例上的操作）返回同一轮换结果
+    private Rotation recentRotation(String key) {
+        Rotation rotation = recentRotations != null ? recentRotations.getIfPresent(key) : null;
+        if (rotation == null) {
+            return null;
+        }
+        Boolean familyExists = transactionTemplate.execute(status ->
+                refreshTokenRepository.existsByFamilyId(rotation.familyId()));
+        if (!Boolean.TRUE.equals(familyExists)) {
+            recentRotations.invalidate(key);
+            throw new BadCredentialsException("刷新令牌已失效，请重新登录");
+        }
+        return rotation;
+    }
+
+    // 按摘要查找令牌：先查前置缓存，未命中时查询数据库；令牌只能使用一次，查到后即从缓存移除
+    // 令牌签发后可能立即被使用，查询放在读写事务中，启用读写分离时走主库而不是可能延迟的只读副本
+    private CachedToken take(byte[] tokenHash) {
+        CachedToken current = cache.asMap().remove(HexFormat.of().formatHex(tokenHash));
+        if (current == null) {
+            current = transactionTemplate.execute(status ->
+                    refreshTokenRepository.findViewByTokenHash(tokenHash).map(CachedToken::of).orElse(null));
+        }
+        return current;
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    // 轮换结果：新令牌、所属令牌族与用户名
+    public record Rotation(String refreshToken, Long familyId, String username) {
+    }
+
+    private record CachedToken(Long id, Long familyId, Long userId, String username, LocalDateTime expiresAt) {
+        private static CachedToken of(RefreshTokenView view) {
+            return new CachedToken(view.getId(), view.getFamilyId(), view.getUserId(), view.getUsername(),
+                    view.getExpiresAt());
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.example.service;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.model.RevokedToken;
+import org.example.repository.RevokedTokenRepository;
+import org.example.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 访问令牌吊销列表：按jti保存在内存中直到令牌自然过期，并持久化到revoked_tokens表供重启与其他实例加载
+// 验证路径先查布隆过滤器，绝大多数"未吊销"的令牌在此返回，无锁且不分配对象；命中时再查精确集合排除误判
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // 每次加载/同步读取的行数
+    private static final int LOAD_BATCH_SIZE = 10000;
+
+    // 同步时重读最近的若干条记录：自增ID的提交顺序可能与分配顺序不同，避免漏掉稍晚提交的较小ID
+    private static final long SYNC_OVERLAP = 256;
+
+    private static final int UUID_LENGTH = 36;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.token-revocation.expected-entries:1000000}")
+    private long expectedEntries;
+
+    @Value("${auth.token-revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // 精确集合：jti -> 令牌过期时间（毫秒）
+    private final ConcurrentHashMap<UUID, Long> revoked = new ConcurrentHashMap<>();
+
+    // 写入精确集合与布隆过滤器、重建过滤器时互斥，读取不加锁
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // 布隆过滤器不能删除元素，清理过期记录后整体重建并替换
+    private volatile BloomFilter filter;
+
+    private long lastSyncedId;
+
+    private Counter revokedHits;
+
+    private Counter falsePositives;
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        revokedHits = Counter.builder("auth.token_revocation.hits")
+                .description("被拒绝的已吊销令牌请求数")
+                .register(meterRegistry);
+        falsePositives = Counter.builder("auth.token_revocation.false_positives")
+                .description("布隆过滤器误判次数（由精确集合排除）")
+                .register(meterRegistry);
+        Gauge.builder("auth.token_revocation.entries", revoked, Map::size)
+                .description("内存中未过期的吊销令牌数")
+                .register(meterRegistry);
+        Gauge.builder("auth.token_revocation.filter.bytes", this, service -> service.filter.bitSize() / 8.0)
+                .description("布隆过滤器占用的内存（字节）")
+                .register(meterRegistry);
+        sync();
+        logger.info("已加载 {} 个吊销令牌，布隆过滤器 {} 位、{} 个哈希函数",
+                revoked.size(), filter.bitSize(), filter.hashCount());
+    }
+
+    // 判断令牌是否已被吊销（验证路径调用）；没有jti的令牌无法吊销，只能等待过期
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || jti.length() != UUID_LENGTH) {
+            return false;
+        }
+        long high = parseHigh(jti);
+        long low = parseLow(jti);
+        if (!filter.mightContain(high, low)) {
+            return false;
+        }
+        if (revoked.containsKey(new UUID(high, low))) {
+            revokedHits.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    // 吊销令牌直到其过期时间
+    public void revoke(Claims claims, Long userId) {
+        if (isValidJti(claims.getId()) && claims.getExpiration() != null) {
+            revoke(claims.getId(), userId, claims.getExpiration());
+        }
+    }
+
+    // 按jti吊销令牌（如令牌泄露时由管理员操作），过期时间未知时由调用方传入令牌的最长有效期
+    public void revoke(String jti, Long userId, Date expiresAt) {
+        UUID key = UUID.fromString(jti);
+        if (!add(key, expiresAt.getTime())) {
+            return;
+        }
+        try {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .jti(key.toString())
+                    .userId(userId)
+                    .expiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // 其他实例已写入同一jti
+            logger.debug("吊销记录已存在: {}", jti);
+        }
+        logger.info("令牌已吊销: jti={}, userId={}", jti, userId);
+    }
+
+    // 检查jti格式（标准UUID字符串）
+    public static boolean isValidJti(String jti) {
+        try {
+            return jti != null && jti.length() == UUID_LENGTH && UUID.fromString(jti).toString().equalsIgnoreCase(jti);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // 定时读取其他实例新增的吊销记录
+    @Scheduled(fixedDelayString = "${auth.token-revocation.sync-interval:5000}",
+            initialDelayString = "${auth.token-revocation.sync-interval:5000}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = Math.max(0L, lastSyncedId - SYNC_OVERLAP);
+        List<RevokedToken> batch;
+        do {
+            batch = revokedTokenRepository.findActiveAfter(afterId, now, Limit.of(LOAD_BATCH_SIZE));
+            for (RevokedToken token : batch) {
+                add(UUID.fromString(token.getJti()),
+                        token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                afterId = token.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        lastSyncedId = Math.max(lastSyncedId, afterId);
+    }
+
+    // 定时清理已过期的记录并重建布隆过滤器
+    @Scheduled(fixedDelayString = "${auth.token-revocation.cleanup-interval:60000}")
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        writeLock.lock();
+        try {
+            int before = revoked.size();
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            if (revoked.size() != before) {
+                BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size()), falsePositiveRate);
+                revoked.keySet().forEach(key -> rebuilt.put(key.getMostSignificantBits(), key.getLeastSignificantBits()));
+                filter = rebuilt;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        revokedTokenRepository.deleteExpired(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()));
+    }
+
+    // 加入精确集合与布隆过滤器，已存在时返回false
+    private boolean add(UUID key, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        writeLock.lock();
+        try {
+            if (revoked.putIfAbsent(key, expiresAt) != null) {
+                return false;
+            }
+            filter.put(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // 按UUID字符串（8-4-4-4-12）各段解析出高64位与低64位，不分配对象；格式不符时视为未吊销
+    private static long parseHigh(String jti) {
+        try {
+            return Long.parseUnsignedLong(jti, 0, 8, 16) << 32
+                    | Long.parseUnsignedLong(jti, 9, 13, 16) << 16
+                    | Long.parseUnsignedLong(jti, 14, 18, 16);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static long parseLow(String jti) {
+        try {
+            return Long.parseUnsignedLong(jti, 19, 23, 16) << 48
+                    | Long.parseUnsignedLong(jti, 24, 36, 16);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.repository.UserKeyView;
+import org.example.repository.UserRepository;
+import org.example.repository.UserStreamReader;
+import org.example.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// 用户名/邮箱可用性检查：布隆过滤器保存所有已存在的用户名与邮箱（按排序规则规范化），判断"一定不存在"时直接返回可用，
+// 不查询数据库；"可能存在"时再按唯一索引查询确认
+// 启动时流式扫描用户表构建；本实例的注册、导入与邮箱修改在写入提交后即时加入，其他实例新增的用户定时按ID增量同步
+// 已删除的用户与修改前的邮箱无法从过滤器中移除（只会多一次查询），定时全量重建时清除
+// 过滤器只是快速路径，同时注册同一用户名等竞争情况仍由数据库唯一索引兜底
+@Service
+public class UserAvailabilityService {
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+    // 同步时重读最近的若干条记录：自增ID的提交顺序可能与分配顺序不同，避免漏掉稍晚提交的较小ID
+    private static final long SYNC_OVERLAP = 256;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserStreamReader userStreamReader;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.availability.expected-entries:1000000}")
+    private long expectedEntries;
+
+    @Value("${auth.availability.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private KeyFilter usernames;
+
+    private KeyFilter emails;
+
+    // 增量同步与全量重建互斥，查询不加锁
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private long lastSyncedId;
+
+    @PostConstruct
+    public void init() {
+        usernames = new KeyFilter("username");
+        emails = new KeyFilter("email");
+        rebuild();
+        logger.info("用户名/邮箱过滤器已构建，每个过滤器 {} 位、{} 个哈希函数",
+                usernames.current.bitSize(), usernames.current.hashCount());
+    }
+
+    // 用户名是否可用（不存在）
+    public boolean isUsernameAvailable(String username) {
+        return usernames.isAvailable(username, userRepository::existsByUsername);
+    }
+
+    // 邮箱是否可用（未被注册）
+    public boolean isEmailAvailable(String email) {
+        return emails.isAvailable(email, userRepository::existsByEmail);
+    }
+
+    // 新增用户后加入过滤器（注册与导入）
+    public void addUser(String username, String email) {
+        usernames.put(username);
+        emails.put(email);
+    }
+
+    // 修改邮箱后加入新邮箱，旧邮箱在下次全量重建时清除
+    public void addEmail(String email) {
+        emails.put(email);
+    }
+
+    // 定时读取其他实例新增的用户
+    @Scheduled(fixedDelayString = "${auth.availability.sync-interval:30000}",
+            initialDelayString = "${auth.availability.sync-interval:30000}")
+    public void sync() {
+        syncLock.lock();
+        try {
+            lastSyncedId = Math.max(lastSyncedId, scan(Math.max(0L, lastSyncedId - SYNC_OVERLAP)));
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // 定时全量重建：清除已删除的用户与修改前的邮箱，并按当前用户数调整过滤器大小（预留一倍的增长空间）
+    // 重建期间即时加入的值同时写入新旧过滤器，替换后不会丢失
+    @Scheduled(fixedDelayString = "${auth.availability.rebuild-interval:3600000}",
+            initialDelayString = "${auth.availability.rebuild-interval:3600000}")
+    public void rebuild() {
+        syncLock.lock();
+        try {
+            long entries = Math.max(expectedEntries, userRepository.count() * 2);
+            usernames.building = new BloomFilter(entries, falsePositiveRate);
+            emails.building = new BloomFilter(entries, falsePositiveRate);
+            lastSyncedId = scan(0L);
+            usernames.swap();
+            emails.swap();
+        } finally {
+            // 重建失败时丢弃新过滤器，替换成功时已在swap中置空
+            usernames.building = null;
+            emails.building = null;
+            syncLock.unlock();
+        }
+    }
+
+    // 按ID顺序流式读取afterId之后的用户并加入过滤器（重建期间同时加入新过滤器），返回读到的最大ID
+    private long scan(long afterId) {
+        long max = afterId;
+        try (Stream<UserKeyView> keys = userStreamReader.streamKeysAfter(afterId)) {
+            Iterator<UserKeyView> iterator = keys.iterator();
+            while (iterator.hasNext()) {
+                UserKeyView key = iterator.next();
+                usernames.put(key.getUsername());
+                emails.put(key.getEmail());
+                max = key.getId();
+            }
+        }
+        return max;
+    }
+
+    // 按唯一索引的排序规则（MySQL 8默认的utf8mb4_0900_ai_ci）规范化：该规则不区分大小写与重音，
+    // 全角/半角等兼容字符按同一字符比较，因此先做兼容分解（NFKD）并去掉重音等组合符号与零宽字符，
+    // 再经大写转小写折叠大小写（ß与ss等展开也归为同一值）
+    // 规范化只可以比排序规则更宽松：多归并的值只会多一次数据库查询，少归并则会把已存在的值误判为可用
+    // 因此同样去掉首尾空格（PAD SPACE的旧排序规则忽略末尾空格）
+    private static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFKD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); ) {
+            int codePoint = decomposed.codePointAt(i);
+            i += Character.charCount(codePoint);
+            switch (Character.getType(codePoint)) {
+                case Character.NON_SPACING_MARK, Character.COMBINING_SPACING_MARK, Character.ENCLOSING_MARK,
+                     Character.FORMAT -> {
+                }
+                default -> folded.appendCodePoint(codePoint);
+            }
+        }
+        return folded.toString().toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    // 对规范化后的值计算两个64位哈希（FNV-1a与乘法哈希），作为布隆过滤器的128位键
+    private static long hashHigh(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long hashLow(String value) {
+        long hash = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            hash = hash * 0x9e3779b97f4a7c15L + value.charAt(i);
+        }
+        return hash;
+    }
+
+    // 一个字段（用户名或邮箱）的过滤器与指标
+    private final class KeyFilter {
+
+        // 首次构建在启动时完成
+        private volatile BloomFilter current;
+
+        // 全量重建期间的新过滤器，其余时间为null
+        private volatile BloomFilter building;
+
+        // 即时加入与替换过滤器互斥（只保护几次位写入，不阻塞查询）：
+        // 否则加入时先写入旧过滤器、随后读到已置空的building，这次加入会在替换后丢失
+        // 加入总在写入提交之后进行：加入时尚未开始重建的值，重建的扫描一定能读到
+        private final ReentrantLock swapLock = new ReentrantLock();
+
+        private final Counter absent;
+        private final Counter present;
+        private final Counter falsePositives;
+
+        KeyFilter(String field) {
+            this.absent = checkCounter(field, "absent");
+            this.present = checkCounter(field, "present");
+            this.falsePositives = Counter.builder("auth.availability.false_positives")
+                    .description("过滤器判断可能存在、查询后确认不存在的次数")
+                    .tag("field", field)
+                    .register(meterRegistry);
+            Gauge.builder("auth.availability.filter.bytes", this, filter -> filter.current.bitSize() / 8.0)
+                    .description("可用性过滤器占用的内存（字节）")
+                    .tag("field", field)
+                    .register(meterRegistry);
+        }
+
+        boolean isAvailable(String value, Predicate<String> exists) {
+            String key = normalize(value);
+            if (!current.mightContain(hashHigh(key), hashLow(key))) {
+                absent.increment();
+                return true;
+            }
+            present.increment();
+            if (exists.test(value)) {
+                return false;
+            }
+            falsePositives.increment();
+            return true;
+        }
+
+        void put(String value) {
+            String key = normalize(value);
+            long high = hashHigh(key);
+            long low = hashLow(key);
+            swapLock.lock();
+            try {
+                BloomFilter active = current;
+                if (active != null) {
+                    active.put(high, low);
+                }
+                BloomFilter next = building;
+                if (next != null) {
+                    next.put(high, low);
+                }
+            } finally {
+                swapLock.unlock();
+            }
+        }
+
+        void swap() {
+            swapLock.lock();
+            try {
+                current = building;
+                building = null;
+            } finally {
+                swapLock.unlock();
+            }
+        }
+
+        private Counter checkCounter(String field, String result) {
+            return Counter.builder("auth.availability.checks")
+                    .description("可用性检查次数（absent为由过滤器直接判断不存在，present为需要查询数据库）")
+                    .tags("field", field, "result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import org.example.dto.UserResponseDto;
+import org.example.repository.UserStreamReader;
+import org.example.repository.UserView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+// 用户数据导出：通过流式读取连接池的服务端游标逐批读取，边读边写入响应流，内存占用与用户总数无关
+@Component
+public class UserExporter {
+    private static final Logger logger = LoggerFactory.getLogger(UserExporter.class);
+
+    // 写缓冲区大小，攒满后才写入响应流，避免逐行刷新
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER = "id,username,email,fullName,phone,role,status,createdAt,lastLogin,avatarUrl";
+
+    @Autowired
+    private UserStreamReader userStreamReader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter ndjsonWriter;
+
+    @PostConstruct
+    public void init() {
+        // 每个对象之间以换行分隔，且不在每行后刷新
+        ndjsonWriter = objectMapper.writerFor(UserResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+    }
+
+    // 以NDJSON格式（每行一个JSON对象）写出全部用户
+    public void writeNdjson(OutputStream outputStream) {
+        export(outputStream, (writer, rows) -> {
+            // 生成器只刷新不关闭，关闭会连带关闭响应流
+            JsonGenerator generator = ndjsonWriter.createGenerator(writer);
+            rows.forEach(row -> {
+                try {
+                    ndjsonWriter.writeValue(generator, UserService.buildUserResponseDto(row));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeRaw('\n');
+            generator.flush();
+        });
+    }
+
+    // 以CSV格式写出全部用户，首行为表头
+    public void writeCsv(OutputStream outputStream) {
+        export(outputStream, (writer, rows) -> {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            rows.forEach(row -> {
+                try {
+                    writeCsvRow(writer, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        });
+    }
+
+    // 写出单个JSON对象（导出参数错误时的错误响应）
+    public void writeJson(OutputStream outputStream, Object value) throws IOException {
+        objectMapper.writeValue(outputStream, value);
+    }
+
+    private void export(OutputStream outputStream, RowsWriter rowsWriter) {
+        long start = System.currentTimeMillis();
+        try (Stream<UserView> rows = userStreamReader.streamAll()) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            rowsWriter.write(writer, rows);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("用户数据导出完成，耗时 {}ms", System.currentTimeMillis() - start);
+    }
+
+    private void writeCsvRow(Writer writer, UserView row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writeCsvField(writer, row.getUsername());
+        writeCsvField(writer, row.getEmail());
+        writeCsvField(writer, row.getFullName());
+        writeCsvField(writer, row.getPhone());
+        writeCsvField(writer, row.getRole());
+        writeCsvField(writer, row.getStatus());
+        writeCsvField(writer, format(row.getCreatedAt()));
+        writeCsvField(writer, format(row.getLastLogin()));
+        writeCsvField(writer, row.getAvatarUrl());
+        writer.write('\n');
+    }
+
+    // 写出一个CSV字段，含逗号、引号或换行时加引号并转义（RFC 4180）
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String format(LocalDateTime time) {
+        return time == null ? null : time.toString();
+    }
+
+    @FunctionalInterface
+    private interface RowsWriter {
+        void write(Writer writer, Stream<UserView> rows) throws IOException;
+    }
+}
@@ -0,0 +1,443 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.config.BoundedPasswordEncoder;
+import org.example.config.CalibratedBCryptPasswordEncoder;
+import org.example.config.PasswordHashingRejectedException;
+import org.example.dto.RegisterDto;
+import org.example.dto.UserImportFailureDto;
+import org.example.dto.UserImportResultDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+// 批量导入用户：边读取请求体边解析，密码在哈希线程池中并行计算，按块以JDBC批量插入并逐块提交
+// 用户名/邮箱重复由唯一约束判定，批量插入失败时对该块逐行重试以定位失败行
+@Component
+public class UserImporter {
+    private static final Logger logger = LoggerFactory.getLogger(UserImporter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO users (username, email, password, full_name, phone, role, status, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    // 哈希队列被登录请求占满时的重试间隔与次数
+    private static final long HASH_RETRY_DELAY_MS = 50;
+    private static final int HASH_RETRY_ATTEMPTS = 200;
+
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+    private static final Set<String> STATUSES = Set.of("ACTIVE", "INACTIVE");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    // 每个事务（一次批量插入）包含的行数
+    @Value("${auth.import.batch-size:500}")
+    private int batchSize;
+
+    // 返回结果中最多列出的失败行数
+    @Value("${auth.import.max-reported-failures:1000}")
+    private int maxReportedFailures;
+
+    // 所有导入合计同时占用的哈希线程数，0表示哈希线程数的1/4（至少1个）
+    @Value("${auth.import.hash-threads:0}")
+    private int hashThreads;
+
+    private TransactionTemplate chunkTransaction;
+
+    // 所有导入共用：导入最多占用部分哈希线程，其余线程始终留给登录与注册
+    private Semaphore hashPermits;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        int permits = hashThreads > 0 ? hashThreads : Math.max(1, passwordEncoder.getParallelism() / 4);
+        hashPermits = new Semaphore(Math.min(permits, passwordEncoder.getParallelism()));
+    }
+
+    // 导入CSV，首行为表头，列名与导出格式一致，另含password或passwordHash列
+    public UserImportResultDto importCsv(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            return new ImportRun().result();
+        }
+        // 去掉表格软件导出时附带的BOM
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+
+        ImportRun run = new ImportRun();
+        List<String> values;
+        while ((values = records.next()) != null) {
+            if (values.size() == 1 && values.get(0).isEmpty()) {
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                fields.put(header.get(i).trim(), values.get(i));
+            }
+            run.accept(records.getLine(), fields);
+        }
+        return run.finish();
+    }
+
+    // 导入NDJSON，每行一个JSON对象，字段名与导出格式一致，另含password或passwordHash字段
+    public UserImportResultDto importNdjson(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        ImportRun run = new ImportRun();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                Iterator<Map.Entry<String, JsonNode>> iterator = node.fields();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, JsonNode> field = iterator.next();
+                    fields.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText());
+                }
+            } catch (JsonProcessingException e) {
+                run.fail(lineNumber, null, "JSON格式不正确");
+                continue;
+            }
+            run.accept(lineNumber, fields);
+        }
+        return run.finish();
+    }
+
+    // 提交一次密码哈希；队列已满（登录高峰）时稍后重试，而不是让整行失败
+    private CompletableFuture<String> hash(String rawPassword, Semaphore permits) {
+        permits.acquireUninterruptibly();
+        for (int attempt = 1; ; attempt++) {
+            CompletableFuture<String> future = passwordEncoder.encodeAsync(rawPassword);
+            if (!future.isCompletedExceptionally() || attempt >= HASH_RETRY_ATTEMPTS) {
+                return future.whenComplete((hash, error) -> permits.release());
+            }
+            try {
+                Thread.sleep(HASH_RETRY_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return future.whenComplete((hash, error) -> permits.release());
+            }
+        }
+    }
+
+    // 一次导入的状态：待插入的块、块内已出现的用户名/邮箱与统计结果
+    private class ImportRun {
+        private final List<ImportRow> chunk = new ArrayList<>(batchSize);
+        // 同一块内的重复行直接判定失败，避免整块插入失败后逐行重试；每块插入后清空，大小不超过块大小
+        // 与之前的块重复的行由唯一索引发现（该块逐行重试）
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<UserImportFailureDto> failures = new ArrayList<>();
+        private final long startedAt = System.currentTimeMillis();
+        private long total;
+        private long imported;
+        private long failed;
+
+        void accept(long line, Map<String, String> fields) {
+            total++;
+            String username = trimToNull(fields.get("username"));
+            String email = trimToNull(fields.get("email"));
+            String password = fields.get("password");
+            String passwordHash = trimToNull(fields.get("passwordHash"));
+            String role = valueOrDefault(fields.get("role"), "USER").toUpperCase(Locale.ROOT);
+            String status = valueOrDefault(fields.get("status"), "ACTIVE").toUpperCase(Locale.ROOT);
+
+            // 与注册接口使用相同的校验规则
+            RegisterDto registerDto = new RegisterDto();
+            registerDto.setUsername(username);
+            registerDto.setEmail(email);
+            registerDto.setPassword(passwordHash != null ? passwordHash : password);
+            Set<ConstraintViolation<RegisterDto>> violations = validator.validate(registerDto);
+            if (!violations.isEmpty()) {
+                failRow(line, username, violations.iterator().next().getMessage());
+                return;
+            }
+            if (passwordHash != null && CalibratedBCryptPasswordEncoder.strengthOf(passwordHash) < 0) {
+                failRow(line, username, "密码哈希格式不正确");
+                return;
+            }
+            if (!ROLES.contains(role)) {
+                failRow(line, username, "不支持的角色: " + role);
+                return;
+            }
+            if (!STATUSES.contains(status)) {
+                failRow(line, username, "不支持的状态: " + status);
+                return;
+            }
+            if (!seenUsernames.add(username.toLowerCase(Locale.ROOT))) {
+                failRow(line, username, "文件中用户名重复");
+                return;
+            }
+            if (!seenEmails.add(email.toLowerCase(Locale.ROOT))) {
+                failRow(line, username, "文件中邮箱重复");
+                return;
+            }
+
+            ImportRow row = new ImportRow();
+            row.line = line;
+            row.username = username;
+            row.email = email;
+            row.fullName = trimToNull(fields.get("fullName"));
+            row.phone = trimToNull(fields.get("phone"));
+            row.role = role;
+            row.status = status;
+            // 已提供BCrypt哈希时直接使用，强度与当前配置不同的哈希在首次登录时升级
+            row.password = passwordHash != null ? CompletableFuture.completedFuture(passwordHash) : hash(password, hashPermits);
+            chunk.add(row);
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void fail(long line, String username, String message) {
+            total++;
+            failRow(line, username, message);
+        }
+
+        UserImportResultDto finish() {
+            flush();
+            long elapsed = Math.max(System.currentTimeMillis() - startedAt, 1);
+            logger.info("批量导入完成: 共{}行, 成功{}行, 失败{}行, 耗时{}ms ({}行/秒)",
+                    total, imported, failed, elapsed, imported * 1000 / elapsed);
+            return result();
+        }
+
+        UserImportResultDto result() {
+            // 校验失败的行立即记录，插入失败的行在整块提交时记录，按行号排序后返回
+            failures.sort(Comparator.comparingLong(UserImportFailureDto::getLine));
+            return UserImportResultDto.builder()
+                    .total(total)
+                    .imported(imported)
+                    .failed(failed)
+                    .failures(failures)
+                    .build();
+        }
+
+        // 等待本块的密码哈希完成后批量插入
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<ImportRow> ready = new ArrayList<>(chunk.size());
+            for (ImportRow row : chunk) {
+                try {
+                    row.passwordHash = row.password.join();
+                    ready.add(row);
+                } catch (CompletionException e) {
+                    failRow(row.line, row.username, e.getCause() instanceof PasswordHashingRejectedException
+                            ? "服务繁忙，请稍后重试" : "密码加密失败");
+                }
+            }
+            chunk.clear();
+            seenUsernames.clear();
+            seenEmails.clear();
+            if (ready.isEmpty()) {
+                return;
+            }
+
+            try {
+                chunkTransaction.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, ready, ready.size(), UserImporter::bind));
+                imported += ready.size();
+                ready.forEach(row -> userAvailabilityService.addUser(row.username, row.email));
+            } catch (DataIntegrityViolationException e) {
+                // 整块已回滚，逐行插入以确定哪些行违反唯一约束
+                logger.debug("批量插入失败，逐行重试: {}", e.getMessage());
+                for (ImportRow row : ready) {
+                    insertRow(row);
+                }
+            }
+        }
+
+        private void insertRow(ImportRow row) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row));
+                imported++;
+                userAvailabilityService.addUser(row.username, row.email);
+            } catch (DuplicateKeyException e) {
+                failRow(row.line, row.username, duplicateMessage(e, row));
+            } catch (DataIntegrityViolationException e) {
+                failRow(row.line, row.username, "数据不合法");
+            }
+        }
+
+        private void failRow(long line, String username, String message) {
+            failed++;
+            if (failures.size() < maxReportedFailures) {
+                failures.add(new UserImportFailureDto(line, username, message));
+            }
+        }
+    }
+
+    private static class ImportRow {
+        long line;
+        String username;
+        String email;
+        String fullName;
+        String phone;
+        String role;
+        String status;
+        CompletableFuture<String> password;
+        String passwordHash;
+    }
+
+    private static void bind(PreparedStatement ps, ImportRow row) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        ps.setString(1, row.username);
+        ps.setString(2, row.email);
+        ps.setString(3, row.passwordHash);
+        ps.setString(4, row.fullName);
+        ps.setString(5, row.phone);
+        ps.setString(6, row.role);
+        ps.setString(7, row.status);
+        ps.setTimestamp(8, now);
+        ps.setTimestamp(9, now);
+    }
+
+    // 根据唯一约束错误信息判断重复的是邮箱还是用户名：优先匹配错误信息中重复的值，其次匹配约束列名
+    private static String duplicateMessage(DuplicateKeyException e, ImportRow row) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message == null) {
+            return "用户名或邮箱已存在";
+        }
+        String lower = message.toLowerCase(Locale.ROOT);
+        if (lower.contains("'" + row.email.toLowerCase(Locale.ROOT) + "'")) {
+            return "邮箱已被注册";
+        }
+        if (lower.contains("'" + row.username.toLowerCase(Locale.ROOT) + "'")) {
+            return "用户名已被使用";
+        }
+        if (lower.contains("email")) {
+            return "邮箱已被注册";
+        }
+        return lower.contains("username") ? "用户名已被使用" : "用户名或邮箱已存在";
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String valueOrDefault(String value, String defaultValue) {
+        String trimmed = trimToNull(value);
+        return trimmed == null ? defaultValue : trimmed;
+    }
+
+    // 按RFC 4180读取CSV记录，支持引号包裹的字段中含逗号、引号与换行
+    private static class CsvRecordReader {
+        private final BufferedReader reader;
+        private long line;
+        private long nextLine = 1;
+
+        CsvRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        // 当前记录起始行号
+        long getLine() {
+            return line;
+        }
+
+        List<String> next() throws IOException {
+            int c = reader.read();
+            if (c < 0) {
+                return null;
+            }
+            line = nextLine;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c >= 0) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            nextLine++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    nextLine++;
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -1,36 +1,79 @@
 package org.example.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.example.config.PasswordHashingRejectedException;
 import org.example.dto.*;
 import org.example.model.User;
+import org.example.model.UserProfile;
 import org.example.repository.UserRepository;
+import org.example.repository.UserView;
+import io.jsonwebtoken.Claims;
 import org.example.util.JwtUtils;
+import org.example.util.JwtVerificationResult;
+import org.example.util.UserPageCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+// 各公开方法的耗时按方法名记录为 auth.user.service 计时器
 @Service
+@Timed(value = "auth.user.service", description = "用户服务操作耗时")
 public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    // 用户列表分页参数
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String SORT_BY_ID = "id";
+    private static final String SORT_BY_CREATED_AT = "createdAt";
+    private static final String SORT_BY_LAST_LOGIN = "lastLogin";
+    // 按时间降序排序时第一页的起始值
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    // 批量操作每条语句涉及的最大用户数，避免单条语句锁定过多行或IN列表过长
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginAuthenticator loginAuthenticator;
 
     @Autowired
     private JwtUtils jwtUtils;
@@ -38,16 +81,54 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserStatusRegistry userStatusRegistry;
+
+    @Autowired
+    private CachedUserDetailsService userDetailsService;
+
+    @Autowired
+    private LastLoginWriter lastLoginWriter;
+
+    @Autowired
+    private UserExporter userExporter;
+
+    @Autowired
+    private UserImporter userImporter;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // 批量操作的每块在一个事务中执行
+    private TransactionTemplate chunkTransaction;
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
     // 用户注册
-    @Transactional
+    // 用户名与邮箱先经可用性过滤器检查，只有可能已存在时才查询数据库；插入时的唯一索引冲突同样返回400
+    // 不使用@Transactional：插入由save自身的事务提交，唯一索引冲突时只回滚这次插入，可以在这里转换为400；
+    // 若包在外层事务中，冲突会把外层事务标记为仅回滚，返回400后提交时仍抛出UnexpectedRollbackException。
+    // BCrypt哈希也因此不在事务中计算，不占用数据库连接
     public ResponseEntity<?> registerUser(RegisterDto registerDto) {
         // 检查用户名是否已存在
-        if (userRepository.existsByUsername(registerDto.getUsername())) {
+        if (!userAvailabilityService.isUsernameAvailable(registerDto.getUsername())) {
             return new ResponseEntity<>(new ErrorResponseDto("用户名已被使用"), HttpStatus.BAD_REQUEST);
         }
 
         // 检查邮箱是否已存在
-        if (userRepository.existsByEmail(registerDto.getEmail())) {
+        if (!userAvailabilityService.isEmailAvailable(registerDto.getEmail())) {
             return new ResponseEntity<>(new ErrorResponseDto("邮箱已被注册"), HttpStatus.BAD_REQUEST);
         }
 
@@ -62,131 +143,276 @@ public class UserService {
                 .status("ACTIVE")
                 .build();
 
-        userRepository.save(user);
+        try {
+            userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            // 唯一索引冲突：并发注册或过滤器尚未同步其他实例新增的用户
+            String message = userRepository.existsByUsername(registerDto.getUsername()) ? "用户名已被使用" : "邮箱已被注册";
+            logger.warn("用户注册失败，{}: {}", message, registerDto.getUsername());
+            return new ResponseEntity<>(new ErrorResponseDto(message), HttpStatus.BAD_REQUEST);
+        } catch (DataIntegrityViolationException e) {
+            // 其他约束（字段长度等）
+            logger.warn("用户注册失败，数据不合法: {}", e.getMostSpecificCause().getMessage());
+            return new ResponseEntity<>(new ErrorResponseDto("用户信息不合法"), HttpStatus.BAD_REQUEST);
+        }
+        userAvailabilityService.addUser(user.getUsername(), user.getEmail());
         logger.info("用户注册成功: {}", user.getUsername());
 
         return new ResponseEntity<>(new SuccessResponseDto("注册成功"), HttpStatus.CREATED);
     }
 
+    // 检查用户名/邮箱是否可用（注册页输入时调用），至少提供一项
+    public ResponseEntity<?> checkAvailability(String username, String email) {
+        boolean hasUsername = StringUtils.hasText(username);
+        boolean hasEmail = StringUtils.hasText(email);
+        if (!hasUsername && !hasEmail) {
+            return new ResponseEntity<>(new ErrorResponseDto("请提供用户名或邮箱"), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(new AvailabilityResponseDto(
+                hasUsername ? userAvailabilityService.isUsernameAvailable(username) : null,
+                hasEmail ? userAvailabilityService.isEmailAvailable(email) : null), HttpStatus.OK);
+    }
+
     // 用户登录
     public ResponseEntity<?> loginUser(LoginDto loginDto) {
         try {
             logger.info("开始用户登录验证: {}", loginDto.getUsername());
 
-            // 验证用户是否存在
-            if (!userRepository.existsByUsername(loginDto.getUsername())) {
-                logger.warn("用户不存在: {}", loginDto.getUsername());
-                return new ResponseEntity<>(new ErrorResponseDto("用户名或密码错误"), HttpStatus.UNAUTHORIZED);
-            }
+            // 按用户名查询一次并校验密码；查询前记下认证缓存的失效次数，查询后用户被修改时不以旧数据刷新缓存
+            long cacheGeneration = userDetailsService.generation();
+            User user = loginAuthenticator.authenticate(loginDto.getUsername(), loginDto.getPassword());
 
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(loginDto.getUsername(), loginDto.getPassword()));
+            Authentication authentication = new UsernamePasswordAuthenticationToken(
+                    user, null, user.getAuthorities());
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = jwtUtils.generateJwtToken(authentication);
 
-            User user = (User) authentication.getPrincipal();
-            // 更新最后登录时间
-            user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
+            // 更新最后登录时间（延迟批量写入数据库）
+            // 用户实体放入共享的认证缓存后可能被其他请求同时读取，不再修改：新的登录时间只写入本次响应与写入队列
+            LocalDateTime now = LocalDateTime.now();
+            lastLoginWriter.record(user.getId(), now);
+            // 登录时已读取最新记录，直接刷新认证缓存（读取之后发生过失效时跳过）
+            userDetailsService.put(user, cacheGeneration);
 
-            // 构建用户响应DTO
-            UserResponseDto userResponseDto = UserResponseDto.builder()
-                    .id(user.getId())
-                    .username(user.getUsername())
-                    .email(user.getEmail())
-                    .fullName(user.getFullName())
-                    .phone(user.getPhone())
-                    .role(user.getRole())
-                    .status(user.getStatus())
-                    .createdAt(user.getCreatedAt())
-                    .lastLogin(user.getLastLogin())
-                    .avatarUrl(user.getAvatarUrl())
-                    .build();
-
-            JwtResponseDto jwtResponse = JwtResponseDto.builder()
-                    .accessToken(jwt)
-                    .tokenType("Bearer")
-                    .expiresIn(jwtUtils.getExpirationTime())
-                    .user(userResponseDto)
-                    .build();
+            JwtResponseDto jwtResponse = buildJwtResponse(jwt, refreshTokenService.issue(user), user);
+            jwtResponse.getUser().setLastLogin(now);
 
             logger.info("用户登录成功: {}", user.getUsername());
             return new ResponseEntity<>(jwtResponse, HttpStatus.OK);
+        } catch (BadCredentialsException e) {
+            logger.warn("用户名或密码错误: {}", loginDto.getUsername());
+            return new ResponseEntity<>(new ErrorResponseDto("用户名或密码错误"), HttpStatus.UNAUTHORIZED);
+        } catch (DisabledException e) {
+            logger.warn("账号已被禁用: {}", loginDto.getUsername());
+            return new ResponseEntity<>(new ErrorResponseDto("账号已被禁用"), HttpStatus.UNAUTHORIZED);
+        } catch (PasswordHashingRejectedException e) {
+            // 交由全局异常处理器返回503
+            throw e;
         } catch (Exception e) {
             logger.error("登录过程中出现错误: {}", e.getMessage(), e);
             return new ResponseEntity<>(new ErrorResponseDto("登录失败: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    // 刷新令牌：作废旧的刷新令牌并签发新的访问令牌与刷新令牌，无需再次校验密码
+    public ResponseEntity<?> refreshToken(RefreshTokenDto refreshTokenDto) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshTokenDto.getRefreshToken());
+
+            // 用户信息经认证缓存读取，账号被禁用后不再续期
+            User user = (User) userDetailsService.loadUserByUsername(rotation.username());
+            if (!user.isEnabled()) {
+                refreshTokenService.revokeFamily(rotation.familyId());
+                logger.warn("账号已被禁用，拒绝刷新令牌: {}", user.getUsername());
+                return new ResponseEntity<>(new ErrorResponseDto("账号已被禁用"), HttpStatus.UNAUTHORIZED);
+            }
+
+            Authentication authentication = new UsernamePasswordAuthenticationToken(
+                    user, null, user.getAuthorities());
+            String jwt = jwtUtils.generateJwtToken(authentication);
+            return new ResponseEntity<>(buildJwtResponse(jwt, rotation.refreshToken(), user), HttpStatus.OK);
+        } catch (AuthenticationException e) {
+            logger.warn("刷新令牌失败: {}", e.getMessage());
+            return new ResponseEntity<>(new ErrorResponseDto(e.getMessage()), HttpStatus.UNAUTHORIZED);
+        } catch (Exception e) {
+            logger.error("刷新令牌过程中出现错误: {}", e.getMessage(), e);
+            return new ResponseEntity<>(new ErrorResponseDto("刷新令牌失败"), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // 退出登录：吊销当前访问令牌（直到其过期）与刷新令牌所在的令牌族，令牌无效时忽略
+    public ResponseEntity<?> logout(String authorization, RefreshTokenDto refreshTokenDto) {
+        try {
+            String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                    ? authorization.substring(7) : null;
+            JwtVerificationResult verification = accessToken != null ? jwtUtils.verify(accessToken) : null;
+            if (verification != null && verification.isValid()) {
+                Claims claims = verification.getClaims();
+                tokenRevocationService.revoke(claims, claims.get(JwtUtils.CLAIM_USER_ID, Long.class));
+            }
+            if (refreshTokenDto != null && StringUtils.hasText(refreshTokenDto.getRefreshToken())) {
+                refreshTokenService.revoke(refreshTokenDto.getRefreshToken());
+            }
+            return new ResponseEntity<>(new SuccessResponseDto("已退出登录"), HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("退出登录失败: {}", e.getMessage(), e);
+            return new ResponseEntity<>(new ErrorResponseDto("退出登录失败"), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // 吊销指定访问令牌（令牌泄露时由管理员操作）：过期时间未知，按访问令牌的最长有效期保留
+    public ResponseEntity<?> revokeToken(String jti) {
+        if (!TokenRevocationService.isValidJti(jti)) {
+            return new ResponseEntity<>(new ErrorResponseDto("无效的令牌ID"), HttpStatus.BAD_REQUEST);
+        }
+        try {
+            tokenRevocationService.revoke(jti, null, new Date(System.currentTimeMillis() + jwtUtils.getExpirationTime()));
+            return new ResponseEntity<>(new SuccessResponseDto("令牌已吊销"), HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("吊销令牌失败: {}", e.getMessage(), e);
+            return new ResponseEntity<>(new ErrorResponseDto("吊销令牌失败"), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // 获取当前用户信息
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getCurrentUser(Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        UserResponseDto userResponseDto = buildUserResponseDto(user);
-        return new ResponseEntity<>(userResponseDto, HttpStatus.OK);
+        // 主体来自用户缓存时已包含完整信息；无状态模式下的主体仅包含令牌声明（邮箱在库中非空），需按ID查询
+        if (user.getEmail() != null) {
+            return new ResponseEntity<>(buildUserResponseDto(user), HttpStatus.OK);
+        }
+        return getUserById(user.getId());
     }
 
     // 根据ID获取用户信息
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getUserById(Long userId) {
-        Optional<User> userOptional = userRepository.findById(userId);
+        Optional<UserView> userOptional = userRepository.findViewById(userId);
         if (!userOptional.isPresent()) {
             return new ResponseEntity<>(new ErrorResponseDto("用户不存在"), HttpStatus.NOT_FOUND);
         }
 
-        User user = userOptional.get();
-        UserResponseDto userResponseDto = buildUserResponseDto(user);
+        UserResponseDto userResponseDto = buildUserResponseDto(userOptional.get());
         return new ResponseEntity<>(userResponseDto, HttpStatus.OK);
     }
 
-    // 获取所有用户列表
-    public ResponseEntity<?> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        List<UserResponseDto> userResponseDtos = users.stream()
-                .map(this::buildUserResponseDto)
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(userResponseDtos, HttpStatus.OK);
-    }
+    // 分页获取用户列表（基于游标的键集分页，可按状态、角色筛选，按ID、创建时间或最后登录时间排序）
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getAllUsers(String cursor, Integer size, String status, String role, String sort,
+                                         boolean includeTotal) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        String sortField = sort == null ? SORT_BY_ID : sort;
+        if (!SORT_BY_ID.equals(sortField) && !SORT_BY_CREATED_AT.equals(sortField) && !SORT_BY_LAST_LOGIN.equals(sortField)) {
+            return new ResponseEntity<>(new ErrorResponseDto("不支持的排序字段: " + sort), HttpStatus.BAD_REQUEST);
+        }
 
-    // 更新用户信息
-    @Transactional
-    public ResponseEntity<?> updateUser(Long userId, UserUpdateDto updateDto) {
+        UserPageCursor pageCursor;
         try {
-            Optional<User> userOptional = userRepository.findById(userId);
-            if (!userOptional.isPresent()) {
-                return new ResponseEntity<>(new ErrorResponseDto("用户不存在"), HttpStatus.NOT_FOUND);
-            }
+            pageCursor = cursor == null || cursor.isEmpty() ? null : UserPageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ErrorResponseDto(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
 
-            User user = userOptional.get();
+        // 多取一行用于判断是否还有下一页
+        Limit limit = Limit.of(pageSize + 1);
+        List<UserView> users;
+        if (SORT_BY_CREATED_AT.equals(sortField)) {
+            users = pageCursor == null
+                    ? userRepository.findPageOrderByCreatedAt(status, role, FAR_FUTURE, Long.MAX_VALUE, limit)
+                    : userRepository.findPageOrderByCreatedAt(status, role, pageCursor.getSortValue(), pageCursor.getId(), limit);
+        } else if (SORT_BY_LAST_LOGIN.equals(sortField)) {
+            users = pageCursor == null
+                    ? userRepository.findPageOrderByLastLogin(status, role, FAR_FUTURE, Long.MAX_VALUE, limit)
+                    : userRepository.findPageOrderByLastLogin(status, role, pageCursor.getSortValue(), pageCursor.getId(), limit);
+        } else {
+            users = userRepository.findPageOrderById(status, role, pageCursor == null ? 0L : pageCursor.getId(), limit);
+        }
 
-            // 更新可修改的字段
-            if (updateDto.getEmail() != null && !updateDto.getEmail().equals(user.getEmail())) {
-                if (userRepository.existsByEmail(updateDto.getEmail())) {
-                    return new ResponseEntity<>(new ErrorResponseDto("邮箱已被使用"), HttpStatus.BAD_REQUEST);
-                }
-                user.setEmail(updateDto.getEmail());
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            UserView last = users.get(pageSize - 1);
+            if (SORT_BY_CREATED_AT.equals(sortField)) {
+                nextCursor = UserPageCursor.encode(last.getId(), last.getCreatedAt());
+            } else if (SORT_BY_LAST_LOGIN.equals(sortField)) {
+                nextCursor = UserPageCursor.encode(last.getId(), last.getLastLogin());
+            } else {
+                nextCursor = UserPageCursor.encode(last.getId());
             }
+        }
 
-            if (updateDto.getFullName() != null) {
-                user.setFullName(updateDto.getFullName());
-            }
+        UserPageDto page = UserPageDto.builder()
+                .users(users.stream().map(UserService::buildUserResponseDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .total(includeTotal ? userRepository.countByFilter(status, role) : null)
+                .build();
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
 
-            if (updateDto.getPhone() != null) {
-                user.setPhone(updateDto.getPhone());
-            }
+    // 流式导出全部用户，format为ndjson（默认）或csv
+    // 返回类型须声明为StreamingResponseBody才能异步写出，因此错误响应也以流的形式写出
+    public ResponseEntity<StreamingResponseBody> exportUsers(String format) {
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                    .body(userExporter::writeNdjson);
+        }
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"")
+                    .body(userExporter::writeCsv);
+        }
+        ErrorResponseDto error = new ErrorResponseDto("不支持的导出格式: " + format);
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> userExporter.writeJson(outputStream, error));
+    }
 
-            if (updateDto.getRole() != null) {
-                user.setRole(updateDto.getRole());
-            }
+    // 批量导入用户，按Content-Type区分CSV（text/csv）与NDJSON（默认）
+    public ResponseEntity<?> importUsers(String contentType, InputStream inputStream) {
+        try {
+            UserImportResultDto result = contentType != null && contentType.toLowerCase().startsWith("text/csv")
+                    ? userImporter.importCsv(inputStream)
+                    : userImporter.importNdjson(inputStream);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IOException e) {
+            logger.error("读取导入数据失败: {}", e.getMessage());
+            return new ResponseEntity<>(new ErrorResponseDto("读取导入数据失败"), HttpStatus.BAD_REQUEST);
+        }
+    }
 
-            if (updateDto.getStatus() != null) {
-                user.setStatus(updateDto.getStatus());
+    // 更新用户信息：单条UPDATE只修改请求中提供的字段，不预先查询用户
+    public ResponseEntity<?> updateUser(Long userId, UserUpdateDto updateDto) {
+        try {
+            int updated = userRepository.updateProfile(userId, updateDto.getVersion(), updateDto.getEmail(),
+                    updateDto.getFullName(), updateDto.getPhone(), updateDto.getRole(), updateDto.getStatus(),
+                    LocalDateTime.now());
+            if (updated == 0) {
+                // 仅在更新失败时区分用户不存在与版本冲突
+                if (!userRepository.existsById(userId)) {
+                    return new ResponseEntity<>(new ErrorResponseDto("用户不存在"), HttpStatus.NOT_FOUND);
+                }
+                return new ResponseEntity<>(new ErrorResponseDto("用户信息已被修改，请刷新后重试"), HttpStatus.CONFLICT);
+            }
+            evictUser(userId);
+            if (updateDto.getEmail() != null) {
+                userAvailabilityService.addEmail(updateDto.getEmail());
             }
 
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
-
-            logger.info("用户信息更新成功: {}", user.getUsername());
+            logger.info("用户信息更新成功: {}", userId);
             return new ResponseEntity<>(new SuccessResponseDto("用户信息更新成功"), HttpStatus.OK);
+        } catch (DuplicateKeyException e) {
+            // 唯一索引冲突（邮箱是唯一可修改的唯一列）
+            logger.warn("更新用户信息失败，邮箱已被使用: {}", updateDto.getEmail());
+            return new ResponseEntity<>(new ErrorResponseDto("邮箱已被使用"), HttpStatus.BAD_REQUEST);
+        } catch (DataIntegrityViolationException e) {
+            // 其他约束（字段长度等）
+            logger.warn("更新用户信息失败，数据不合法: {}", e.getMostSpecificCause().getMessage());
+            return new ResponseEntity<>(new ErrorResponseDto("用户信息不合法"), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("更新用户信息失败: {}", e.getMessage(), e);
             return new ResponseEntity<>(new ErrorResponseDto("更新用户信息失败"), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -211,7 +437,9 @@ public class UserService {
                 return new ResponseEntity<>(new ErrorResponseDto("不能删除自己的账号"), HttpStatus.BAD_REQUEST);
             }
 
+            refreshTokenService.revokeUsers(List.of(user.getId()));
             userRepository.delete(user);
+            evictUser(user);
             logger.info("用户删除成功: {}", user.getUsername());
             return new ResponseEntity<>(new SuccessResponseDto("用户删除成功"), HttpStatus.OK);
         } catch (Exception e) {
@@ -220,31 +448,38 @@ public class UserService {
         }
     }
 
-    // 禁用/启用用户
-    @Transactional
-    public ResponseEntity<?> toggleUserStatus(Long userId) {
+    // 禁用/启用用户：指定目标状态时为单条条件UPDATE；未指定时切换状态，禁用只需一条UPDATE，启用最多两条
+    public ResponseEntity<?> toggleUserStatus(Long userId, String targetStatus) {
         try {
-            Optional<User> userOptional = userRepository.findById(userId);
-            if (!userOptional.isPresent()) {
-                return new ResponseEntity<>(new ErrorResponseDto("用户不存在"), HttpStatus.NOT_FOUND);
-            }
-
-            User user = userOptional.get();
-
-            // 防止禁用自己
+            // 防止禁用自己（当前用户ID已在认证主体中，无需查询）
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             User currentUser = (User) authentication.getPrincipal();
-            if (user.getId().equals(currentUser.getId())) {
+            if (userId.equals(currentUser.getId())) {
                 return new ResponseEntity<>(new ErrorResponseDto("不能禁用/启用自己的账号"), HttpStatus.BAD_REQUEST);
             }
 
-            String newStatus = "ACTIVE".equals(user.getStatus()) ? "INACTIVE" : "ACTIVE";
-            user.setStatus(newStatus);
-            user.setUpdatedAt(LocalDateTime.now());
-            userRepository.save(user);
+            LocalDateTime now = LocalDateTime.now();
+            String newStatus;
+            if (targetStatus != null) {
+                newStatus = targetStatus.toUpperCase();
+                if (!"ACTIVE".equals(newStatus) && !"INACTIVE".equals(newStatus)) {
+                    return new ResponseEntity<>(new ErrorResponseDto("不支持的状态: " + targetStatus), HttpStatus.BAD_REQUEST);
+                }
+                // 状态已是目标值时同样视为成功
+                if (userRepository.updateStatus(userId, newStatus, now) == 0 && !userRepository.existsById(userId)) {
+                    return new ResponseEntity<>(new ErrorResponseDto("用户不存在"), HttpStatus.NOT_FOUND);
+                }
+            } else if (userRepository.updateStatusFrom(userId, "ACTIVE", "INACTIVE", now) > 0) {
+                newStatus = "INACTIVE";
+            } else if (userRepository.updateStatus(userId, "ACTIVE", now) > 0) {
+                newStatus = "ACTIVE";
+            } else {
+                return new ResponseEntity<>(new ErrorResponseDto("用户不存在"), HttpStatus.NOT_FOUND);
+            }
+            evictUser(userId);
 
             String action = "ACTIVE".equals(newStatus) ? "启用" : "禁用";
-            logger.info("用户状态更新成功: {} -> {}", user.getUsername(), newStatus);
+            logger.info("用户状态更新成功: {} -> {}", userId, newStatus);
             return new ResponseEntity<>(new SuccessResponseDto(action + "用户成功"), HttpStatus.OK);
         } catch (Exception e) {
             logger.error("更新用户状态失败: {}", e.getMessage(), e);
@@ -252,8 +487,159 @@ public class UserService {
         }
     }
 
-    // 辅助方法：构建用户响应DTO
-    private UserResponseDto buildUserResponseDto(User user) {
+    // 批量禁用/启用用户：按ID列表或筛选条件选择用户，分块执行UPDATE
+    public ResponseEntity<?> bulkUpdateStatus(BulkUserOperationDto operationDto) {
+        String targetStatus = operationDto.getStatus() == null ? null : operationDto.getStatus().toUpperCase();
+        if (!"ACTIVE".equals(targetStatus) && !"INACTIVE".equals(targetStatus)) {
+            return new ResponseEntity<>(new ErrorResponseDto("不支持的状态: " + operationDto.getStatus()), HttpStatus.BAD_REQUEST);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        ResponseEntity<?> response = bulkOperation(operationDto, "不能禁用/启用自己的账号",
+                ids -> userRepository.updateStatusByIds(ids, targetStatus, now));
+        if (response.getBody() instanceof BulkUserOperationResultDto result) {
+            String action = "ACTIVE".equals(targetStatus) ? "启用" : "禁用";
+            result.setMessage("批量" + action + "用户成功");
+            logger.info("批量更新用户状态成功: {} -> {}", result.getAffected(), targetStatus);
+        }
+        return response;
+    }
+
+    // 批量删除用户：按ID列表或筛选条件选择用户，分块执行DELETE
+    public ResponseEntity<?> bulkDeleteUsers(BulkUserOperationDto operationDto) {
+        ResponseEntity<?> response = bulkOperation(operationDto, "不能删除自己的账号", ids -> {
+            refreshTokenService.revokeUsers(ids);
+            List<String> usernames = userRepository.findUsernamesByIds(ids);
+            int deleted = userRepository.deleteByIds(ids);
+            // 用户名解析缓存只在删除时失效（用户名不可变），实体缓存由applyChunk按ID清除；同样在提交后再清除一次
+            evict(() -> userRepository.evictCachedUsernames(usernames));
+            return deleted;
+        });
+        if (response.getBody() instanceof BulkUserOperationResultDto result) {
+            result.setMessage("批量删除用户成功");
+            logger.info("批量删除用户成功: {}", result.getAffected());
+        }
+        return response;
+    }
+
+    // 批量操作的公共流程：校验参数与自我保护规则，按块执行语句并使受影响用户的缓存失效
+    // 每块在独立事务中执行（批量删除时吊销刷新令牌与删除用户在同一事务中），某块失败时只回滚该块，已完成的块不会回滚
+    private ResponseEntity<?> bulkOperation(BulkUserOperationDto operationDto, String selfMessage,
+                                            Function<List<Long>, Integer> statement) {
+        List<Long> ids = operationDto.getIds();
+        UserFilterDto filter = operationDto.getFilter();
+        if ((ids == null) == (filter == null)) {
+            return new ResponseEntity<>(new ErrorResponseDto("请指定ids或filter其中之一"), HttpStatus.BAD_REQUEST);
+        }
+        if (filter != null && filter.getStatus() == null && filter.getRole() == null) {
+            return new ResponseEntity<>(new ErrorResponseDto("筛选条件不能为空"), HttpStatus.BAD_REQUEST);
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long currentUserId = ((User) authentication.getPrincipal()).getId();
+
+        try {
+            long affected = 0;
+            if (ids != null) {
+                Set<Long> targetIds = new LinkedHashSet<>(ids);
+                targetIds.remove(null);
+                // 与单个操作相同：列表中包含自己时拒绝整个请求
+                if (targetIds.contains(currentUserId)) {
+                    return new ResponseEntity<>(new ErrorResponseDto(selfMessage), HttpStatus.BAD_REQUEST);
+                }
+                List<Long> chunk = new ArrayList<>(Math.min(targetIds.size(), BULK_CHUNK_SIZE));
+                for (Long id : targetIds) {
+                    chunk.add(id);
+                    if (chunk.size() == BULK_CHUNK_SIZE) {
+                        affected += applyChunk(chunk, statement);
+                        chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    affected += applyChunk(chunk, statement);
+                }
+            } else {
+                // 按筛选条件时自动排除自己，按ID分批取出目标用户
+                long afterId = 0L;
+                List<Long> chunk;
+                do {
+                    chunk = userRepository.findIdsByFilter(filter.getStatus(), filter.getRole(), afterId, currentUserId,
+                            Limit.of(BULK_CHUNK_SIZE));
+                    if (!chunk.isEmpty()) {
+                        afterId = chunk.get(chunk.size() - 1);
+                        affected += applyChunk(chunk, statement);
+                    }
+                } while (chunk.size() == BULK_CHUNK_SIZE);
+            }
+            return new ResponseEntity<>(new BulkUserOperationResultDto(null, affected), HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("批量操作用户失败: {}", e.getMessage(), e);
+            return new ResponseEntity<>(new ErrorResponseDto("批量操作用户失败"), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // 缓存在事务内清除一次、提交后再清除一次（见evict）
+    private int applyChunk(List<Long> ids, Function<List<Long>, Integer> statement) {
+        Integer affected = chunkTransaction.execute(status -> {
+            int count = statement.apply(ids);
+            evictUsers(new HashSet<>(ids));
+            return count;
+        });
+        return affected == null ? 0 : affected;
+    }
+
+    // 辅助方法：构建登录/刷新令牌的响应
+    private JwtResponseDto buildJwtResponse(String accessToken, String refreshToken, User user) {
+        return JwtResponseDto.builder()
+                .accessToken(accessToken)
+                .tokenType("Bearer")
+                .expiresIn(jwtUtils.getExpirationTime())
+                .refreshToken(refreshToken)
+                .refreshExpiresIn(refreshTokenService.getExpirationTime())
+                .user(buildUserResponseDto(user))
+                .build();
+    }
+
+    // 辅助方法：用户被修改后清除缓存的认证信息，事务提交后再清除一次，避免并发读取把旧数据重新放回缓存
+    private void evictUser(User user) {
+        evict(() -> {
+            userDetailsService.evict(user.getUsername());
+            userStatusRegistry.invalidate(user.getId());
+        });
+    }
+
+    // 辅助方法：只知道用户ID时（定向UPDATE之后）按ID清除缓存
+    // 先清除二级缓存中的实体，避免用户详情缓存从二级缓存重新加载到旧数据
+    private void evictUser(Long userId) {
+        evict(() -> {
+            userRepository.evictCachedUsers(List.of(userId));
+            userDetailsService.evictById(userId);
+            userStatusRegistry.invalidate(userId);
+        });
+    }
+
+    // 辅助方法：批量操作后按ID集合清除缓存
+    private void evictUsers(Set<Long> userIds) {
+        evict(() -> {
+            userRepository.evictCachedUsers(userIds);
+            userDetailsService.evictByIds(userIds);
+            userIds.forEach(userStatusRegistry::invalidate);
+        });
+    }
+
+    private void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    // 辅助方法：由用户实体或投影构建用户响应DTO
+    static UserResponseDto buildUserResponseDto(UserProfile user) {
         return UserResponseDto.builder()
                 .id(user.getId())
                 .username(user.getUsername())
@@ -265,6 +651,7 @@ public class UserService {
                 .createdAt(user.getCreatedAt())
                 .lastLogin(user.getLastLogin())
                 .avatarUrl(user.getAvatarUrl())
+                .version(user.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,105 @@
+package org.example.service;
+
+import io.jsonwebtoken.Claims;
+import org.example.model.User;
+import org.example.util.JwtUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 无状态认证模式下的用户状态登记表
+// 记录每个用户最近一次经数据库确认的角色与状态，在过期窗口内直接信任，窗口过后由过滤器回源数据库复核
+@Component
+public class UserStatusRegistry {
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean enabled;
+
+    @Value("${jwt.stateless.max-staleness:300000}")
+    private long maxStalenessMs;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+
+    private final ConcurrentHashMap<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 获取可信的用户状态快照，返回null表示需要回源数据库复核
+    public Snapshot current(Long userId, Claims claims) {
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = snapshots.get(userId);
+        if (snapshot != null) {
+            return snapshot.isFresh(now, maxStalenessMs) ? snapshot : null;
+        }
+
+        // 签发不久的令牌本身就是一次数据库确认的结果
+        Date issuedAt = claims.getIssuedAt();
+        if (issuedAt == null || now - issuedAt.getTime() > maxStalenessMs) {
+            return null;
+        }
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        String status = claims.get(JwtUtils.CLAIM_STATUS, String.class);
+        if (role == null || status == null) {
+            return null;
+        }
+        Snapshot fromClaims = new Snapshot(role, status, issuedAt.getTime(), false);
+        Snapshot existing = snapshots.putIfAbsent(userId, fromClaims);
+        return existing == null ? fromClaims : (existing.isFresh(now, maxStalenessMs) ? existing : null);
+    }
+
+    // 记录数据库确认后的用户状态
+    public void record(User user) {
+        snapshots.put(user.getId(), new Snapshot(user.getRole(), user.getStatus(), System.currentTimeMillis(), false));
+    }
+
+    // 用户被修改、禁用或删除后，强制下一次请求回源数据库复核
+    public void invalidate(Long userId) {
+        snapshots.put(userId, new Snapshot(null, null, System.currentTimeMillis(), true));
+    }
+
+    // 定时清理已失效的条目：普通快照超过窗口即无用，失效标记在令牌最长有效期后无用
+    // 清理不在请求路径上进行，登记表再大也不会让某个请求扫描全部条目
+    @Scheduled(fixedDelayString = "${jwt.stateless.purge-interval:60000}")
+    public void purge() {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        snapshots.values().removeIf(snapshot -> snapshot.invalidated
+                ? now - snapshot.timestamp > jwtExpirationMs
+                : !snapshot.isFresh(now, maxStalenessMs));
+    }
+
+    // 用户状态快照
+    public static final class Snapshot {
+        private final String role;
+        private final String status;
+        private final long timestamp;
+        private final boolean invalidated;
+
+        private Snapshot(String role, String status, long timestamp, boolean invalidated) {
+            this.role = role;
+            this.status = status;
+            this.timestamp = timestamp;
+            this.invalidated = invalidated;
+        }
+
+        private boolean isFresh(long now, long maxStalenessMs) {
+            return !invalidated && now - timestamp <= maxStalenessMs;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+}
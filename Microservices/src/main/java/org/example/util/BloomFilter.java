@@ -0,0 +1,79 @@
+package org.example.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 布隆过滤器：以128位键（两个long）为输入，判断"一定不存在"或"可能存在"
+// 位数组为AtomicLongArray，查询只做volatile读，无锁、不分配对象；写入用CAS置位
+// 采用双重哈希（Kirsch-Mitzenmacher）由两个64位哈希派生k个位置
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+
+    // 按预期元素数与目标误判率计算位数与哈希函数个数
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long bits = optimalBitSize(Math.max(1L, expectedEntries), falsePositiveRate);
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8L, (bits + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount << 6;
+        this.hashCount = optimalHashCount(Math.max(1L, expectedEntries), bitSize);
+    }
+
+    public static long optimalBitSize(long expectedEntries, double falsePositiveRate) {
+        return (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    }
+
+    public static int optimalHashCount(long expectedEntries, long bitSize) {
+        return Math.max(1, (int) Math.round((double) bitSize / expectedEntries * Math.log(2)));
+    }
+
+    public void put(long keyHigh, long keyLow) {
+        long hash1 = mix(keyHigh);
+        long hash2 = mix(keyLow) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitSize);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0 && !words.weakCompareAndSetVolatile(index, word, word | mask)) {
+                word = words.get(index);
+            }
+        }
+    }
+
+    public boolean mightContain(long keyHigh, long keyLow) {
+        long hash1 = mix(keyHigh);
+        long hash2 = mix(keyLow) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    // 已插入n个元素时的理论误判率
+    public double expectedFalsePositiveRate(long entries) {
+        return Math.pow(1 - Math.exp(-(double) hashCount * entries / bitSize), hashCount);
+    }
+
+    // MurmurHash3的64位终结函数，打散UUID中固定的版本位与变体位
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb93fe53a87c5L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.util;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// RS256签名密钥集合：按kid保存所有可用于验证的公钥，当前签名密钥另外保存私钥
+// 启动时构建一次，之后只读，按kid查找无需加锁
+// 密钥目录中 <kid>.key.pem 为PKCS#8私钥，<kid>.pub.pem 为仅用于验证的X.509公钥
+public class JwtKeySet {
+
+    public static final String ALGORITHM = "RS256";
+
+    private static final String PRIVATE_KEY_SUFFIX = ".key.pem";
+    private static final String PUBLIC_KEY_SUFFIX = ".pub.pem";
+    private static final int MIN_KEY_BITS = 2048;
+
+    private final String activeKid;
+    private final PrivateKey signingKey;
+    private final Map<String, RSAPublicKey> verificationKeys;
+
+    private JwtKeySet(String activeKid, PrivateKey signingKey, Map<String, RSAPublicKey> verificationKeys) {
+        this.activeKid = activeKid;
+        this.signingKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+    }
+
+    // 从密钥目录加载，activeKid为空且目录中只有一个私钥时使用该私钥签名
+    public static JwtKeySet load(Path dir, String activeKid) {
+        Map<String, RSAPrivateCrtKey> privateKeys = new TreeMap<>();
+        Map<String, RSAPublicKey> publicKeys = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.pem")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PRIVATE_KEY_SUFFIX)) {
+                    String kid = name.substring(0, name.length() - PRIVATE_KEY_SUFFIX.length());
+                    privateKeys.put(kid, readPrivateKey(file));
+                } else if (name.endsWith(PUBLIC_KEY_SUFFIX)) {
+                    String kid = name.substring(0, name.length() - PUBLIC_KEY_SUFFIX.length());
+                    publicKeys.put(kid, readPublicKey(file));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("无法读取JWT密钥目录: " + dir, e);
+        }
+
+        if (activeKid == null || activeKid.isBlank()) {
+            if (privateKeys.size() != 1) {
+                throw new IllegalStateException("JWT密钥目录中有 " + privateKeys.size()
+                        + " 个私钥，需通过 jwt.signing.active-kid 指定签名使用的kid");
+            }
+            activeKid = privateKeys.keySet().iterator().next();
+        }
+        RSAPrivateCrtKey activeKey = privateKeys.get(activeKid);
+        if (activeKey == null) {
+            throw new IllegalStateException("JWT密钥目录中没有签名密钥 " + activeKid + PRIVATE_KEY_SUFFIX);
+        }
+
+        // 私钥对应的公钥可直接由私钥推出，同一kid同时提供公钥文件时两者必须匹配
+        Map<String, RSAPublicKey> verificationKeys = new LinkedHashMap<>(publicKeys);
+        for (Map.Entry<String, RSAPrivateCrtKey> entry : privateKeys.entrySet()) {
+            RSAPublicKey derived = publicKeyOf(entry.getValue());
+            RSAPublicKey declared = verificationKeys.put(entry.getKey(), derived);
+            if (declared != null && !declared.getModulus().equals(derived.getModulus())) {
+                throw new IllegalStateException("JWT密钥 " + entry.getKey() + " 的公钥与私钥不匹配");
+            }
+        }
+        return new JwtKeySet(activeKid, activeKey, verificationKeys);
+    }
+
+    // 生成临时密钥（未配置密钥目录时使用），重启后此前签发的令牌全部失效，多实例之间也无法互相验证
+    public static JwtKeySet generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(MIN_KEY_BITS);
+            KeyPair keyPair = generator.generateKeyPair();
+            String kid = UUID.randomUUID().toString();
+            Map<String, RSAPublicKey> verificationKeys = new LinkedHashMap<>();
+            verificationKeys.put(kid, (RSAPublicKey) keyPair.getPublic());
+            return new JwtKeySet(kid, keyPair.getPrivate(), verificationKeys);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("无法生成RSA密钥", e);
+        }
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public PrivateKey getSigningKey() {
+        return signingKey;
+    }
+
+    // 按kid查找验证公钥，未知kid返回null
+    public RSAPublicKey getVerificationKey(String kid) {
+        return kid != null ? verificationKeys.get(kid) : null;
+    }
+
+    public int size() {
+        return verificationKeys.size();
+    }
+
+    // 按RFC 7517输出公钥集合（JWKS），当前签名密钥排在最前
+    public Map<String, Object> toJwks() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        keys.add(toJwk(activeKid, verificationKeys.get(activeKid)));
+        for (Map.Entry<String, RSAPublicKey> entry : verificationKeys.entrySet()) {
+            if (!entry.getKey().equals(activeKid)) {
+                keys.add(toJwk(entry.getKey(), entry.getValue()));
+            }
+        }
+        return Collections.singletonMap("keys", keys);
+    }
+
+    private static Map<String, Object> toJwk(String kid, RSAPublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("kid", kid);
+        jwk.put("n", base64Url(key.getModulus()));
+        jwk.put("e", base64Url(key.getPublicExponent()));
+        return jwk;
+    }
+
+    // JWK中的整数为无符号大端字节序，去掉BigInteger补码表示中的前导0
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        int offset = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        byte[] unsigned = new byte[bytes.length - offset];
+        System.arraycopy(bytes, offset, unsigned, 0, unsigned.length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(unsigned);
+    }
+
+    private static RSAPrivateCrtKey readPrivateKey(Path file) throws IOException {
+        try {
+            PrivateKey key = KeyFactory.getInstance("RSA")
+                    .generatePrivate(new PKCS8EncodedKeySpec(readPem(file, "PRIVATE KEY")));
+            if (!(key instanceof RSAPrivateCrtKey crtKey)) {
+                throw new IllegalStateException("JWT私钥缺少CRT参数，无法推出公钥: " + file);
+            }
+            checkKeySize(crtKey.getModulus(), file);
+            return crtKey;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("无效的RSA私钥（需为PKCS#8格式）: " + file, e);
+        }
+    }
+
+    private static RSAPublicKey readPublicKey(Path file) throws IOException {
+        try {
+            RSAPublicKey key = (RSAPublicKey) KeyFactory.getInstance("RSA")
+                    .generatePublic(new X509EncodedKeySpec(readPem(file, "PUBLIC KEY")));
+            checkKeySize(key.getModulus(), file);
+            return key;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("无效的RSA公钥（需为X.509格式）: " + file, e);
+        }
+    }
+
+    private static RSAPublicKey publicKeyOf(RSAPrivateCrtKey key) {
+        try {
+            return (RSAPublicKey) KeyFactory.getInstance("RSA")
+                    .generatePublic(new RSAPublicKeySpec(key.getModulus(), key.getPublicExponent()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("无法由私钥推出公钥", e);
+        }
+    }
+
+    private static void checkKeySize(BigInteger modulus, Path file) {
+        if (modulus.bitLength() < MIN_KEY_BITS) {
+            throw new IllegalStateException("RS256密钥长度不能小于" + MIN_KEY_BITS + "位: " + file);
+        }
+    }
+
+    private static byte[] readPem(Path file, String type) throws IOException {
+        String pem = Files.readString(file, StandardCharsets.US_ASCII);
+        String begin = "-----BEGIN " + type + "-----";
+        String end = "-----END " + type + "-----";
+        int start = pem.indexOf(begin);
+        int stop = pem.indexOf(end);
+        if (start < 0 || stop < start) {
+            throw new IllegalStateException("PEM文件缺少 " + begin + ": " + file);
+        }
+        return Base64.getMimeDecoder().decode(pem.substring(start + begin.length(), stop));
+    }
+}
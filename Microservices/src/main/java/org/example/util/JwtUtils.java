@@ -2,70 +2,242 @@ package org.example.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.example.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
 import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    // 自定义声明：用户ID、角色、状态（无状态认证模式下用于构建用户主体）
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS = "status";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    // 签名算法：HS256使用共享密钥jwt.secret；RS256使用非对称密钥，下游服务通过JWKS获取公钥本地验证
+    @Value("${jwt.signing.algorithm:HS256}")
+    private String signingAlgorithm;
+
+    @Value("${jwt.signing.keys-dir:}")
+    private String signingKeysDir;
+
+    @Value("${jwt.signing.active-kid:}")
+    private String signingActiveKid;
+
+    // RS256模式下是否继续接受HS256令牌（从HS256迁移期间开启，旧令牌全部过期后关闭）
+    @Value("${jwt.signing.accept-hs256:false}")
+    private boolean acceptHs256;
+
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.token-cache.enabled:true}")
+    private boolean tokenCacheEnabled;
+
+    @Value("${jwt.token-cache.maximum-size:100000}")
+    private long tokenCacheMaximumSize;
+
+    @Value("${jwt.token-cache.negative-maximum-size:10000}")
+    private long tokenCacheNegativeMaximumSize;
+
+    @Value("${jwt.token-cache.negative-ttl:10000}")
+    private long tokenCacheNegativeTtlMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 签名密钥与解析器在启动时构建一次，JwtParser不可变且线程安全
+    // hmacKey为空表示不接受HS256令牌，keySet为空表示未启用RS256
+    private Key hmacKey;
+
+    private JwtKeySet keySet;
+
+    private JwtParser jwtParser;
+
+    private VerifiedTokenCache tokenCache;
+
+    // 签发与验证耗时，验证按是否命中已验证令牌缓存区分（hit/miss，未启用缓存时为none）
+    private Timer generateTimer;
+
+    private Timer verifyHitTimer;
+
+    private Timer verifyMissTimer;
+
+    private Timer verifyUncachedTimer;
+
+    @PostConstruct
+    public void init() {
+        if (JwtKeySet.ALGORITHM.equalsIgnoreCase(signingAlgorithm)) {
+            if (signingKeysDir.isBlank()) {
+                keySet = JwtKeySet.generate();
+                logger.warn("未配置 jwt.signing.keys-dir，已生成临时RS256密钥（kid={}），重启后已签发的令牌将失效",
+                        keySet.getActiveKid());
+            } else {
+                keySet = JwtKeySet.load(Path.of(signingKeysDir), signingActiveKid);
+                logger.info("已加载 {} 个JWT验证密钥，签名使用kid={}", keySet.size(), keySet.getActiveKid());
+            }
+            if (acceptHs256) {
+                hmacKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+            }
+        } else if (SignatureAlgorithm.HS256.getValue().equalsIgnoreCase(signingAlgorithm)) {
+            hmacKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        } else {
+            throw new IllegalStateException("不支持的JWT签名算法: " + signingAlgorithm + "（可选HS256、RS256）");
+        }
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveVerificationKey(header);
+                    }
+                })
+                .build();
+        if (tokenCacheEnabled) {
+            tokenCache = new VerifiedTokenCache(tokenCacheMaximumSize, tokenCacheNegativeMaximumSize,
+                    tokenCacheNegativeTtlMs, meterRegistry);
+        }
+        generateTimer = Timer.builder("auth.jwt.generate")
+                .description("JWT签发耗时")
+                .tag("algorithm", keySet != null ? SignatureAlgorithm.RS256.getValue() : SignatureAlgorithm.HS256.getValue())
+                .register(meterRegistry);
+        verifyHitTimer = verifyTimer("hit");
+        verifyMissTimer = verifyTimer("miss");
+        verifyUncachedTimer = verifyTimer("none");
+    }
+
+    private Timer verifyTimer(String cache) {
+        return Timer.builder("auth.jwt.verify")
+                .description("JWT验证耗时")
+                .tag("cache", cache)
+                .register(meterRegistry);
     }
 
     // 生成JWT令牌
     public String generateJwtToken(Authentication authentication) {
+        long startedAt = System.nanoTime();
         User userPrincipal = (User) authentication.getPrincipal();
 
-        return Jwts.builder()
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
-                .compact();
+                // 令牌ID（jti），用于按令牌吊销
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLE, userPrincipal.getRole())
+                .claim(CLAIM_STATUS, userPrincipal.getStatus())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtExpirationMs));
+        if (keySet != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, keySet.getActiveKid())
+                    .signWith(keySet.getSigningKey(), SignatureAlgorithm.RS256);
+        } else {
+            builder.signWith(hmacKey, SignatureAlgorithm.HS256);
+        }
+        String token = builder.compact();
+        generateTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return token;
     }
 
-    // 从JWT令牌中提取用户名
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+    // 按令牌头部的alg与kid选择验证密钥，只接受已启用的算法，防止算法混淆
+    private Key resolveVerificationKey(JwsHeader<?> header) {
+        String algorithm = header.getAlgorithm();
+        if (SignatureAlgorithm.HS256.getValue().equals(algorithm) && hmacKey != null) {
+            return hmacKey;
+        }
+        if (SignatureAlgorithm.RS256.getValue().equals(algorithm) && keySet != null) {
+            Key key = keySet.getVerificationKey(header.getKeyId());
+            if (key == null) {
+                throw new SignatureException("未知的签名密钥: " + header.getKeyId());
+            }
+            return key;
+        }
+        throw new SignatureException("不接受的签名算法: " + algorithm);
     }
 
-    // 验证JWT令牌
-    public boolean validateJwtToken(String authToken) {
+    // 公钥集合（JWKS），未启用RS256时为空集合
+    public Map<String, Object> getJwks() {
+        return keySet != null ? keySet.toJwks() : Map.of("keys", List.of());
+    }
+
+    // 验证JWT令牌并提取声明，同一令牌在有效期内只做一次签名校验与解析
+    public JwtVerificationResult verify(String token) {
+        long startedAt = System.nanoTime();
+        VerifiedTokenCache.TokenDigest digest = tokenCache != null && token != null ? tokenCache.digest(token) : null;
+        if (digest == null) {
+            JwtVerificationResult result = verifyUncached(token);
+            verifyUncachedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return result;
+        }
+        JwtVerificationResult cached = tokenCache.get(digest);
+        if (cached != null) {
+            verifyHitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
+        JwtVerificationResult result = verifyUncached(token);
+        tokenCache.put(digest, result);
+        verifyMissTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    // 验证JWT令牌并提取声明（不经过缓存），签名校验与解析只执行一次
+    public JwtVerificationResult verifyUncached(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            return JwtVerificationResult.success(claims);
         } catch (SignatureException e) {
             logger.error("无效的JWT签名: {}", e.getMessage());
+            return JwtVerificationResult.failure(JwtVerificationResult.Failure.INVALID_SIGNATURE);
         } catch (MalformedJwtException e) {
             logger.error("无效的JWT令牌: {}", e.getMessage());
+            return JwtVerificationResult.failure(JwtVerificationResult.Failure.MALFORMED);
         } catch (ExpiredJwtException e) {
             logger.error("JWT令牌已过期: {}", e.getMessage());
+            return JwtVerificationResult.failure(JwtVerificationResult.Failure.EXPIRED);
         } catch (UnsupportedJwtException e) {
             logger.error("不支持的JWT令牌: {}", e.getMessage());
+            return JwtVerificationResult.failure(JwtVerificationResult.Failure.UNSUPPORTED);
         } catch (IllegalArgumentException e) {
             logger.error("JWT声明字符串为空: {}", e.getMessage());
+            return JwtVerificationResult.failure(JwtVerificationResult.Failure.EMPTY);
+        } catch (JwtException e) {
+            logger.error("JWT令牌验证失败: {}", e.getMessage());
+            return JwtVerificationResult.failure(JwtVerificationResult.Failure.INVALID);
         }
+    }
+
+    // 从JWT令牌中提取用户名
+    public String getUserNameFromJwtToken(String token) {
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
+    }
 
-        return false;
+    // 验证JWT令牌
+    public boolean validateJwtToken(String authToken) {
+        return verify(authToken).isValid();
     }
 
     // 获取令牌剩余有效期
     public long getExpirationTime() {
         return jwtExpirationMs;
     }
-}
\ No newline at end of file
+}
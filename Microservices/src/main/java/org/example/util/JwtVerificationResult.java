@@ -0,0 +1,58 @@
+package org.example.util;
+
+import io.jsonwebtoken.Claims;
+
+// JWT令牌验证结果：成功时携带解析后的声明，失败时携带失败原因
+public final class JwtVerificationResult {
+
+    // 验证失败原因
+    public enum Failure {
+        INVALID_SIGNATURE,
+        MALFORMED,
+        EXPIRED,
+        UNSUPPORTED,
+        EMPTY,
+        INVALID
+    }
+
+    // 失败结果不携带状态，每种原因共享一个实例
+    private static final JwtVerificationResult[] FAILURES = new JwtVerificationResult[Failure.values().length];
+
+    static {
+        for (Failure failure : Failure.values()) {
+            FAILURES[failure.ordinal()] = new JwtVerificationResult(null, failure);
+        }
+    }
+
+    private final Claims claims;
+    private final Failure failure;
+
+    private JwtVerificationResult(Claims claims, Failure failure) {
+        this.claims = claims;
+        this.failure = failure;
+    }
+
+    public static JwtVerificationResult success(Claims claims) {
+        return new JwtVerificationResult(claims, null);
+    }
+
+    public static JwtVerificationResult failure(Failure failure) {
+        return FAILURES[failure.ordinal()];
+    }
+
+    public boolean isValid() {
+        return failure == null;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public Failure getFailure() {
+        return failure;
+    }
+
+    public String getUsername() {
+        return claims != null ? claims.getSubject() : null;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 按键限流的令牌桶：突发上限为capacity，之后按每分钟permitsPerMinute个的速率补充
+// 采用GCRA（通用信元速率算法）表示令牌桶，每个键只保存一个"理论到达时间"，用CAS更新，无锁
+// 空闲时间超过补满整桶所需的时间后，桶与新建的桶等价，按访问时间淘汰，内存占用有上限
+public class RateLimiter {
+
+    private final long capacity;
+    private final long permitsPerMinute;
+
+    // 补充一个令牌所需的时间（纳秒）
+    private final long interval;
+
+    // 补满整桶所需的时间（纳秒）
+    private final long burst;
+
+    // System.nanoTime()的起点，使时间从0开始、新建的桶（值为0）为满桶
+    private final long origin = System.nanoTime();
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(long capacity, long permitsPerMinute, long maximumKeys) {
+        this.capacity = capacity;
+        this.permitsPerMinute = permitsPerMinute;
+        this.interval = Math.max(1L, Duration.ofMinutes(1).toNanos() / permitsPerMinute);
+        this.burst = interval * capacity;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(Duration.ofNanos(burst))
+                .build();
+    }
+
+    // 尝试取得一个令牌：成功返回0，否则返回需要等待的时间（纳秒），被拒绝的请求不消耗令牌
+    public long tryAcquire(String key) {
+        long now = System.nanoTime() - origin;
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong());
+        while (true) {
+            long current = bucket.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getPermitsPerMinute() {
+        return permitsPerMinute;
+    }
+
+    // 当前跟踪的键数（近似值）
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// 用户列表的分页游标：记录上一页最后一行的排序值与ID，编码为URL安全的Base64字符串
+public final class UserPageCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final long id;
+    private final LocalDateTime sortValue;
+
+    private UserPageCursor(long id, LocalDateTime sortValue) {
+        this.id = id;
+        this.sortValue = sortValue;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    // 按时间排序时的排序值，可能为null（如从未登录的用户）
+    public LocalDateTime getSortValue() {
+        return sortValue;
+    }
+
+    public static String encode(long id) {
+        return encodeRaw(Long.toString(id));
+    }
+
+    public static String encode(long id, LocalDateTime sortValue) {
+        return encodeRaw(id + String.valueOf(SEPARATOR) + (sortValue != null ? sortValue.toString() : ""));
+    }
+
+    // 解析游标，格式不正确时抛出IllegalArgumentException
+    public static UserPageCursor decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+
+        try {
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return new UserPageCursor(Long.parseLong(raw), null);
+            }
+            long id = Long.parseLong(raw.substring(0, separator));
+            String value = raw.substring(separator + 1);
+            return new UserPageCursor(id, value.isEmpty() ? null : LocalDateTime.parse(value));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
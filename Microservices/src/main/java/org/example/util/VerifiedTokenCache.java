@@ -0,0 +1,195 @@
+package org.example.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// 已验证令牌缓存：以令牌的SHA-256摘要为键，缓存验证结果
+// 成功结果最迟在令牌自身的exp时刻过期；失败结果放在单独的、容量更小的负缓存中按负缓存时间过期，
+// 大量伪造或错误的令牌只会互相淘汰，不会挤掉有效令牌的缓存条目
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "jwtTokens";
+
+    public static final String NEGATIVE_CACHE_NAME = "jwtTokensRejected";
+
+    private static final int DIGEST_LENGTH = 32;
+
+    // 复用摘要计算器与缓冲区，命中路径上只分配查找键
+    // 使用固定大小的数组池而不是ThreadLocal：虚拟线程每个请求新建、用完即弃，线程私有的缓冲区无法复用；
+    // 取出与归还只是槽位上的CAS，不像链表队列那样每次归还都分配节点
+    // 槽位数为CPU核数的4倍（向上取整到2的幂），按线程ID选择起始槽位；临时新建的缓冲区归还时若无空槽直接丢弃
+    private static final int POOL_SLOTS = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1;
+
+    private static final int POOL_PROBES = 4;
+
+    private static final AtomicReferenceArray<DigestBuffer> BUFFERS = new AtomicReferenceArray<>(POOL_SLOTS);
+
+    private final Cache<TokenDigest, JwtVerificationResult> cache;
+
+    private final Cache<TokenDigest, JwtVerificationResult> negativeCache;
+
+    public VerifiedTokenCache(long maximumSize, long negativeMaximumSize, long negativeTtlMs,
+                              MeterRegistry meterRegistry) {
+        long negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMs);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<TokenDigest, JwtVerificationResult>() {
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, JwtVerificationResult value, long currentTime) {
+                        Date expiration = value.getClaims().getExpiration();
+                        if (expiration == null) {
+                            return negativeTtlNanos;
+                        }
+                        long remainingMs = expiration.getTime() - System.currentTimeMillis();
+                        return Math.max(0L, TimeUnit.MILLISECONDS.toNanos(remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, JwtVerificationResult value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, JwtVerificationResult value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        this.negativeCache = Caffeine.newBuilder()
+                .maximumSize(negativeMaximumSize)
+                .expireAfterWrite(negativeTtlNanos, TimeUnit.NANOSECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, negativeCache, NEGATIVE_CACHE_NAME);
+    }
+
+    // 计算令牌摘要，令牌包含非ASCII字符时返回null（此类令牌不缓存）
+    public TokenDigest digest(String token) {
+        int start = (int) Thread.currentThread().getId();
+        DigestBuffer buffer = null;
+        for (int i = 0; i < POOL_PROBES && buffer == null; i++) {
+            buffer = BUFFERS.getAndSet((start + i) & (POOL_SLOTS - 1), null);
+        }
+        if (buffer == null) {
+            buffer = new DigestBuffer();
+        }
+        try {
+            return buffer.digest(token);
+        } finally {
+            release(start, buffer);
+        }
+    }
+
+    private static void release(int start, DigestBuffer buffer) {
+        for (int i = 0; i < POOL_PROBES; i++) {
+            if (BUFFERS.compareAndSet((start + i) & (POOL_SLOTS - 1), null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    public JwtVerificationResult get(TokenDigest digest) {
+        JwtVerificationResult result = cache.getIfPresent(digest);
+        return result != null ? result : negativeCache.getIfPresent(digest);
+    }
+
+    public void put(TokenDigest digest, JwtVerificationResult result) {
+        (result.isValid() ? cache : negativeCache).put(digest, result);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        negativeCache.invalidateAll();
+    }
+
+    // 令牌摘要，以4个long保存256位SHA-256结果
+    public static final class TokenDigest {
+        private final long h0;
+        private final long h1;
+        private final long h2;
+        private final long h3;
+
+        private TokenDigest(long h0, long h1, long h2, long h3) {
+            this.h0 = h0;
+            this.h1 = h1;
+            this.h2 = h2;
+            this.h3 = h3;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TokenDigest other)) {
+                return false;
+            }
+            return h0 == other.h0 && h1 == other.h1 && h2 == other.h2 && h3 == other.h3;
+        }
+
+        @Override
+        public int hashCode() {
+            // 摘要本身均匀分布，取低位即可
+            return (int) h0;
+        }
+    }
+
+    // 摘要计算状态，同一时刻只被一个线程使用
+    private static final class DigestBuffer {
+        private final MessageDigest messageDigest;
+        private final byte[] output = new byte[DIGEST_LENGTH];
+        private byte[] input = new byte[512];
+
+        private DigestBuffer() {
+            try {
+                messageDigest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256不可用", e);
+            }
+        }
+
+        private TokenDigest digest(String token) {
+            int length = token.length();
+            if (input.length < length) {
+                input = new byte[Math.max(length, input.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                char c = token.charAt(i);
+                if (c > 0x7F) {
+                    return null;
+                }
+                input[i] = (byte) c;
+            }
+            messageDigest.update(input, 0, length);
+            try {
+                messageDigest.digest(output, 0, DIGEST_LENGTH);
+            } catch (DigestException e) {
+                messageDigest.reset();
+                return null;
+            }
+            return new TokenDigest(readLong(0), readLong(8), readLong(16), readLong(24));
+        }
+
+        private long readLong(int offset) {
+            long value = 0;
+            for (int i = offset; i < offset + 8; i++) {
+                value = (value << 8) | (output[i] & 0xFF);
+            }
+            return value;
+        }
+    }
+}
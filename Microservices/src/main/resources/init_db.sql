@@ -12,15 +12,45 @@ CREATE TABLE IF NOT EXISTS users (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     last_login TIMESTAMP,
-    avatar_url VARCHAR(255)
+    avatar_url VARCHAR(255),
+    version BIGINT NOT NULL DEFAULT 0 -- 乐观锁版本号
 );
 
 -- 创建索引以提高查询性能
 CREATE INDEX idx_users_username ON users(username);
 CREATE INDEX idx_users_email ON users(email);
 CREATE INDEX idx_users_status ON users(status);
+-- 用户列表按创建时间、最后登录时间排序分页
+CREATE INDEX idx_users_created_at ON users(created_at);
+CREATE INDEX idx_users_last_login ON users(last_login);
+
+-- 刷新令牌表：只保存令牌的SHA-256摘要，已使用的令牌保留到过期以识别重复使用
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    token_hash VARBINARY(32) NOT NULL UNIQUE,
+    family_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    used BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_refresh_tokens_family_id (family_id),
+    INDEX idx_refresh_tokens_user_id (user_id),
+    INDEX idx_refresh_tokens_expires_at (expires_at),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- 已吊销的访问令牌（按jti），保留到令牌过期；各实例按自增ID增量同步
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    jti VARCHAR(36) NOT NULL UNIQUE,
+    user_id BIGINT,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+);
 
 -- 添加示例数据（可选）
+-- 密码哈希可用 df12 生成；强度与服务当前BCrypt强度不同的哈希会在首次成功登录时自动升级
 INSERT INTO users (username, email, password, full_name, role) VALUES
 ('admin', 'admin@smartcity.com', '$2a$10$e6TjJyP0zU3nQqUe4hL0.O7aKp1y9X8yKz9b6X5Q5rZ7v8w9x10y', '系统管理员', 'ADMIN')
 ON DUPLICATE KEY UPDATE updated_at = CURRENT_TIMESTAMP;
\ No newline at end of file
@@ -0,0 +1,119 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dto.LoginDto;
+import org.example.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.example.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 每次登录只查询一次用户：Hibernate统计的语句数减去刷新令牌的INSERT即为SELECT数
+// 改动前的登录流程在同一环境中重放作为对比（3条SELECT与1条UPDATE），减少的语句数记录在断言中
+// 定时任务（吊销同步、过期清理等）不执行，统计中只有登录本身产生的语句
+@SpringBootTest
+@ActiveProfiles("test")
+class LoginQueryCountTest {
+
+    private static final String USERNAME = "login_query_count";
+
+    private static final String PASSWORD = "password123";
+
+    @MockBean
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        if (!userRepository.existsByUsername(USERNAME)) {
+            userRepository.save(User.builder()
+                    .username(USERNAME)
+                    .email(USERNAME + "@example.com")
+                    .password(passwordEncoder.encode(PASSWORD))
+                    .role("USER")
+                    .status("ACTIVE")
+                    .build());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void loginWithColdCacheSelectsUserOnce() {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        assertEquals(HttpStatus.OK, login().getStatusCode());
+
+        assertEquals(1, statistics.getEntityInsertCount(), "刷新令牌");
+        assertEquals(1, statistics.getPrepareStatementCount() - statistics.getEntityInsertCount(), "SELECT");
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void loginWithWarmCacheDoesNotSelect() {
+        login();
+        statistics.clear();
+
+        assertEquals(HttpStatus.OK, login().getStatusCode());
+
+        assertEquals(1, statistics.getEntityInsertCount(), "刷新令牌");
+        assertEquals(0, statistics.getPrepareStatementCount() - statistics.getEntityInsertCount(), "SELECT");
+    }
+
+    @Test
+    void legacyLoginSelectsThreeTimesAndUpdates() {
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        legacyLogin();
+
+        assertEquals(1, statistics.getEntityUpdateCount(), "最后登录时间");
+        assertEquals(3, statistics.getPrepareStatementCount() - statistics.getEntityUpdateCount(), "SELECT");
+    }
+
+    private ResponseEntity<?> login() {
+        LoginDto loginDto = new LoginDto();
+        loginDto.setUsername(USERNAME);
+        loginDto.setPassword(PASSWORD);
+        return userService.loginUser(loginDto);
+    }
+
+    // 改动前的登录流程：existsByUsername预检查、DaoAuthenticationProvider经用户详情服务按用户名查询（findByUsername）、
+    // 修改最后登录时间后save（分离的实体经merge按ID再查询一次，然后UPDATE）
+    private void legacyLogin() {
+        assertTrue(userRepository.existsByUsername(USERNAME));
+        User user = userRepository.findByUsername(USERNAME).orElseThrow();
+        assertTrue(passwordEncoder.matches(PASSWORD, user.getPassword()));
+        user.setLastLogin(LocalDateTime.now());
+        // 改动前没有二级缓存，merge的查询不能由上面放入缓存的实体满足
+        entityManagerFactory.getCache().evictAll();
+        userRepository.save(user);
+    }
+}
@@ -25,19 +25,77 @@ api.interceptors.request.use(
   }
 )
 
+// 保存登录/刷新返回的令牌
+export const saveTokens = (response) => {
+  localStorage.setItem('token', response.accessToken)
+  localStorage.setItem('refreshToken', response.refreshToken)
+}
+
+// 清除令牌并跳转到登录页面
+const redirectToLogin = () => {
+  localStorage.removeItem('token')
+  localStorage.removeItem('refreshToken')
+  localStorage.removeItem('user')
+  window.location.href = '/login'
+}
+
+// 正在进行的刷新请求：多个请求同时收到401时只刷新一次（刷新令牌只能使用一次）
+// 多个标签页共用localStorage中的令牌，通过Web Locks串行刷新；拿到锁时令牌已被其他标签页刷新则直接使用
+let refreshPromise = null
+
+// failedToken为收到401的请求所用的访问令牌
+const doRefresh = (failedToken) => {
+  const currentToken = localStorage.getItem('token')
+  if (currentToken && currentToken !== failedToken) {
+    return Promise.resolve(currentToken)
+  }
+  const refreshToken = localStorage.getItem('refreshToken')
+  if (!refreshToken) {
+    return Promise.reject(new Error('no refresh token'))
+  }
+  // 使用独立的axios调用，避免刷新请求本身再次进入拦截器
+  return axios.post('/api/auth/refresh', { refreshToken }).then(response => {
+    saveTokens(response.data)
+    return response.data.accessToken
+  })
+}
+
+const refreshAccessToken = (failedToken) => {
+  if (!refreshPromise) {
+    refreshPromise = (navigator.locks
+      ? navigator.locks.request('auth-refresh', () => doRefresh(failedToken))
+      : doRefresh(failedToken)
+    ).finally(() => {
+      refreshPromise = null
+    })
+  }
+  return refreshPromise
+}
+
 // 响应拦截器
 api.interceptors.response.use(
   response => {
     return response.data
   },
   error => {
-    // 处理401错误（未授权）
-    if (error.response && error.response.status === 401) {
-      // 清除token
-      localStorage.removeItem('token')
-      localStorage.removeItem('user')
-      // 跳转到登录页面
-      window.location.href = '/login'
+    const config = error.config
+    // 处理401错误（未授权）：访问令牌过期时用刷新令牌续期并重试一次，登录请求本身的401直接返回
+    if (error.response && error.response.status === 401 && config && !config._retry &&
+        !config.url.startsWith('auth/')) {
+      config._retry = true
+      const failedToken = (config.headers['Authorization'] || '').replace(/^Bearer /, '')
+      return refreshAccessToken(failedToken)
+        .then(token => {
+          config.headers['Authorization'] = `Bearer ${token}`
+          return api(config)
+        })
+        .catch(refreshError => {
+          redirectToLogin()
+          return Promise.reject(refreshError)
+        })
+    }
+    if (error.response && error.response.status === 401 && config && config._retry) {
+      redirectToLogin()
     }
     return Promise.reject(error)
   }
@@ -52,6 +110,14 @@ export const authApi = {
   login: (credentials) => api.post('auth/login', credentials),
   // 注册
   register: (userData) => api.post('auth/register', userData),
+  // 检查用户名/邮箱是否可用（params: { username, email }，至少提供一个）
+  checkAvailability: (params) => api.get('auth/availability', { params }),
+  // 刷新令牌
+  refresh: (refreshToken) => api.post('auth/refresh', { refreshToken }),
+  // 退出登录（吊销当前令牌），调用时本地令牌可能已清除，因此显式传入访问令牌
+  logout: (token, refreshToken) => api.post('auth/logout', { refreshToken }, {
+    headers: token ? { Authorization: `Bearer ${token}` } : {}
+  }),
   // 获取当前用户信息
   getCurrentUser: () => api.get('users/me')
 }
@@ -60,12 +126,17 @@ export const authApi = {
 export const userApi = {
   // 根据ID获取用户信息
   getUserById: (id) => api.get(`users/${id}`),
-  // 获取所有用户列表
-  getAllUsers: () => api.get('users'),
+  // 分页获取用户列表（基于游标，每页默认20条、最多100条）
+  // params: cursor（上一页返回的nextCursor）、size、status、role、sort（id/createdAt/lastLogin）、includeTotal
+  getAllUsers: (params = {}) => api.get('users', { params }),
   // 更新用户信息
   updateUser: (id, userData) => api.put(`users/${id}`, userData),
   // 删除用户
   deleteUser: (id) => api.delete(`users/${id}`),
   // 切换用户状态
-  toggleUserStatus: (id) => api.patch(`users/${id}/status`)
+  toggleUserStatus: (id, status) => api.patch(`users/${id}/status`, null, { params: { status } }),
+  // 批量修改用户状态（ids或filter二选一）
+  bulkUpdateStatus: (ids, status) => api.patch('users/status', { ids, status }),
+  // 批量删除用户
+  bulkDeleteUsers: (ids) => api.delete('users', { data: { ids } })
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 import { defineStore } from 'pinia'
-import { authApi } from '../services/api'
+import { authApi, saveTokens } from '../services/api'
 
 export const useAuthStore = defineStore('auth', {
   state: () => ({
@@ -27,7 +27,7 @@ export const useAuthStore = defineStore('auth', {
         this.user = response.user
         
         // 保存到localStorage
-        localStorage.setItem('token', response.accessToken)
+        saveTokens(response)
         localStorage.setItem('user', JSON.stringify(response.user))
         
         return response
@@ -57,9 +57,16 @@ export const useAuthStore = defineStore('auth', {
     
     // 登出
     logout() {
+      // 通知服务端吊销令牌，失败时不影响本地退出
+      const token = localStorage.getItem('token')
+      const refreshToken = localStorage.getItem('refreshToken')
+      if (token || refreshToken) {
+        authApi.logout(token, refreshToken).catch(() => {})
+      }
       this.user = null
       this.token = null
       localStorage.removeItem('token')
+      localStorage.removeItem('refreshToken')
       localStorage.removeItem('user')
     },
     